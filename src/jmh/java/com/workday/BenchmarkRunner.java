@@ -0,0 +1,53 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the benchmarks once per thread count with the GC profiler attached, so allocation rates are reported next to latency.
+ * <p>
+ * java -cp target/benchmarks.jar com.workday.BenchmarkRunner [benchmark regex] [thread counts, e.g. 1,2,4]
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_BENCHMARKS = "com.workday.*Benchmark";
+
+    private static final String DEFAULT_THREAD_COUNTS = "1,2,4";
+
+    private BenchmarkRunner() {}
+
+    public static void main(final String[] args) throws RunnerException {
+        final String benchmarks = args.length > 0 ? args[0] : DEFAULT_BENCHMARKS;
+        final String threadCounts = args.length > 1 ? args[1] : DEFAULT_THREAD_COUNTS;
+        for (final String threadCount : threadCounts.split(",")) {
+            final ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(benchmarks)
+                    .threads(Integer.parseInt(threadCount.trim()))
+                    .addProfiler(GCProfiler.class);
+            new Runner(options.build()).run();
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * measures locating the two boundaries of a range, by each {@link SearchStrategy} over a sorted array
+ * and by {@link ConcurrentSkipListMap#subMap(Object, Object)} as the skip list container does
+ * 
+ * @author eiathom
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundarySearchBenchmark {
+
+    private static final int NUMBER_OF_QUERIES = 1024;
+
+    private static final long SEED = 42L;
+
+    /**
+     * width, in salary, of each query
+     */
+    private static final long QUERY_WIDTH = 500;
+
+    @State(Scope.Benchmark)
+    public static class SearchState {
+
+        @Param({ "BINARY", "EYTZINGER", "INTERPOLATION" })
+        public SearchStrategy strategy;
+
+        @Param({ "32000", "1000000" })
+        public int size;
+
+        @Param({ "UNIFORM", "SKEWED" })
+        public ValueDistribution distribution;
+
+        PositionSearch search;
+
+        final long[] fromValues = new long[NUMBER_OF_QUERIES];
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            final long[] sortedData = distribution.generate(size, SEED);
+            Arrays.sort(sortedData);
+            search = strategy.newSearch(sortedData);
+            setUpQueries(sortedData, fromValues);
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class SkipListState {
+
+        @Param({ "32000", "1000000" })
+        public int size;
+
+        @Param({ "UNIFORM", "SKEWED" })
+        public ValueDistribution distribution;
+
+        final ConcurrentSkipListMap<Long, Short> data = new ConcurrentSkipListMap<>(ContainerHelper.getComparator());
+
+        final long[] fromValues = new long[NUMBER_OF_QUERIES];
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            final long[] values = distribution.generate(size, SEED);
+            for (int id = 0; id < values.length; id++) {
+                data.put(values[id], (short) id);
+            }
+            final long[] sortedData = Arrays.copyOf(values, values.length);
+            Arrays.sort(sortedData);
+            setUpQueries(sortedData, fromValues);
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class QueryCursor {
+
+        int query;
+
+        int next() {
+            query = (query + 1) & (NUMBER_OF_QUERIES - 1);
+            return query;
+        }
+
+    }
+
+    private static void setUpQueries(final long[] sortedData, final long[] fromValues) {
+        final Random random = new Random(SEED);
+        for (int query = 0; query < NUMBER_OF_QUERIES; query++) {
+            fromValues[query] = sortedData[random.nextInt(sortedData.length)];
+        }
+    }
+
+    @Benchmark
+    public int sortedArray(final SearchState state, final QueryCursor cursor) {
+        final long fromValue = state.fromValues[cursor.next()];
+        return state.search.firstPositionAtOrAbove(fromValue + QUERY_WIDTH) - state.search.firstPositionAbove(fromValue);
+    }
+
+    /**
+     * the sub map is a lazy view, its boundary nodes are looked up as the view is first read
+     */
+    @Benchmark
+    public void skipListSubMap(final SkipListState state, final QueryCursor cursor, final Blackhole blackhole) {
+        final long fromValue = state.fromValues[cursor.next()];
+        final SortedMap<Long, Short> subMap = state.data.subMap(fromValue, fromValue + QUERY_WIDTH);
+        blackhole.consume(subMap.isEmpty() ? null : subMap.firstKey());
+        blackhole.consume(state.data.lowerKey(fromValue + QUERY_WIDTH));
+    }
+
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * the container implementations under benchmark, every one built through its {@link RangeQueryContainerFactory}
+ * 
+ * @author eiathom
+ *
+ */
+public enum ContainerType {
+
+    SKIP_LIST(new NetRangeQueryContainerFactory()),
+
+    SORTED_ARRAY(new SortedArrayRangeQueryContainerFactory()),
+
+    POSTING_LIST(new PostingListRangeQueryContainerFactory()),
+
+    PACKED(new PackedRangeQueryContainerFactory()),
+
+    BUCKET_BITMAP(new BucketBitmapRangeQueryContainerFactory()),
+
+    DENSE_BUCKETS(new DenseBucketRangeQueryContainerFactory()),
+
+    ADAPTIVE(new AdaptiveRangeQueryContainerFactory());
+
+    private final RangeQueryContainerFactory factory;
+
+    private ContainerType(final RangeQueryContainerFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return the factory building this type of container
+     */
+    public RangeQueryContainerFactory getFactory() {
+        return factory;
+    }
+
+}
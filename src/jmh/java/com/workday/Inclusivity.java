@@ -0,0 +1,51 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * the inclusivity flags passed to {@link RangeContainer#findIdsInRange(long, long, boolean, boolean)}
+ * 
+ * @author eiathom
+ *
+ */
+public enum Inclusivity {
+
+    EXCLUSIVE(false, false),
+
+    INCLUSIVE(true, true),
+
+    FROM_INCLUSIVE(true, false),
+
+    TO_INCLUSIVE(false, true);
+
+    private final boolean fromInclusive;
+
+    private final boolean toInclusive;
+
+    private Inclusivity(final boolean fromInclusive, final boolean toInclusive) {
+        this.fromInclusive = fromInclusive;
+        this.toInclusive = toInclusive;
+    }
+
+    public boolean isFromInclusive() {
+        return fromInclusive;
+    }
+
+    public boolean isToInclusive() {
+        return toInclusive;
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures write latency of {@link MutableRangeQueryContainer} and queries over a partly filled write buffer
+ * 
+ * @author eiathom
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MutableRangeQueryBenchmark {
+
+    private static final long SEED = 42L;
+
+    private static final long MINIMUM_NET_SALARY = 1000;
+
+    private static final long MAXIMUM_NET_SALARY = 75000;
+
+    @Param({ "32000" })
+    public int size;
+
+    @Param({ "256", "1024" })
+    public int bufferCapacity;
+
+    private ExecutorService mergeExecutor;
+
+    private MutableRangeQueryContainer container;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mergeExecutor = Executors.newSingleThreadExecutor();
+        container = new MutableRangeQueryContainer(ValueDistribution.UNIFORM.generate(size, SEED), bufferCapacity, mergeExecutor);
+        for (int write = 0; write < bufferCapacity / 2; write++) {
+            put();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mergeExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void put() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        container.put((short) random.nextInt(size), random.nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY));
+    }
+
+    @Benchmark
+    public int countInRange() {
+        return container.countInRange(20000, 30000, true, false);
+    }
+
+    @Benchmark
+    public long findIdsInRange() {
+        final Ids ids = container.findIdsInRange(20000, 20500, true, false);
+        long checksum = 0;
+        short id;
+        while ((id = ids.nextId()) != Ids.END_OF_IDS) {
+            checksum += id;
+        }
+        return checksum;
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures {@link RangeContainer#findIdsInRange(long, long, boolean, boolean)} for each container type,
+ * the whole result is drained so lazy and eager {@link Ids} are compared on equal terms
+ * 
+ * @author eiathom
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeQueryBenchmark {
+
+    private static final int NUMBER_OF_QUERIES = 1024;
+
+    private static final long SEED = 42L;
+
+    /**
+     * the container and a rotating set of queries shared by every benchmark thread
+     */
+    @State(Scope.Benchmark)
+    public static class ContainerState {
+
+        @Param({ "SKIP_LIST", "SORTED_ARRAY", "POSTING_LIST", "PACKED", "BUCKET_BITMAP", "ADAPTIVE" })
+        public ContainerType containerType;
+
+        @Param({ "1000", "32000" })
+        public int size;
+
+        @Param({ "UNIFORM", "SKEWED", "DUPLICATED" })
+        public ValueDistribution distribution;
+
+        /**
+         * fraction of the container each query is expected to match
+         */
+        @Param({ "0.001", "0.1", "1.0" })
+        public double selectivity;
+
+        @Param({ "EXCLUSIVE", "INCLUSIVE" })
+        public Inclusivity inclusivity;
+
+        RangeContainer container;
+
+        final long[] fromValues = new long[NUMBER_OF_QUERIES];
+
+        final long[] toValues = new long[NUMBER_OF_QUERIES];
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            final long[] data = distribution.generate(size, SEED);
+            container = containerType.getFactory().createContainer(data);
+            final long[] sortedData = Arrays.copyOf(data, data.length);
+            Arrays.sort(sortedData);
+            final int width = Math.max(1, (int) (selectivity * size));
+            final Random random = new Random(SEED);
+            for (int query = 0; query < NUMBER_OF_QUERIES; query++) {
+                final int start = random.nextInt(size - width + 1);
+                fromValues[query] = sortedData[start];
+                toValues[query] = sortedData[start + width - 1];
+            }
+        }
+
+    }
+
+    /**
+     * each benchmark thread walks the queries from its own position
+     */
+    @State(Scope.Thread)
+    public static class QueryCursor {
+
+        int query;
+
+        final short[] buffer = new short[256];
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            query = (int) (Thread.currentThread().getId() % NUMBER_OF_QUERIES);
+        }
+
+        int next() {
+            query = (query + 1) & (NUMBER_OF_QUERIES - 1);
+            return query;
+        }
+
+    }
+
+    @Benchmark
+    public long findIdsInRange(final ContainerState state, final QueryCursor cursor) {
+        final int query = cursor.next();
+        final Ids ids = state.container.findIdsInRange(state.fromValues[query], state.toValues[query],
+                state.inclusivity.isFromInclusive(), state.inclusivity.isToInclusive());
+        long checksum = 0;
+        short id;
+        while ((id = ids.nextId()) != Ids.END_OF_IDS) {
+            checksum += id;
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long findIdsInRangeInBulk(final ContainerState state, final QueryCursor cursor) {
+        final int query = cursor.next();
+        final Ids ids = state.container.findIdsInRange(state.fromValues[query], state.toValues[query],
+                state.inclusivity.isFromInclusive(), state.inclusivity.isToInclusive());
+        long checksum = 0;
+        int count;
+        while ((count = ids.nextIds(cursor.buffer)) > 0) {
+            for (int index = 0; index < count; index++) {
+                checksum += cursor.buffer[index];
+            }
+        }
+        return checksum;
+    }
+
+}
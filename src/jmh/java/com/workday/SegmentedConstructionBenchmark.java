@@ -0,0 +1,73 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures building a segmented container of each segment type as the data grows past 32k
+ * 
+ * @author eiathom
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SegmentedConstructionBenchmark {
+
+    private static final long SEED = 42L;
+
+    @Param({ "SKIP_LIST", "SORTED_ARRAY" })
+    public ContainerType containerType;
+
+    @Param({ "32000", "1000000", "10000000" })
+    public int size;
+
+    @Param({ "UNIFORM" })
+    public ValueDistribution distribution;
+
+    private long[] data;
+
+    private IntRangeQueryContainerFactory factory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = distribution.generate(size, SEED);
+        factory = new SegmentedRangeQueryContainerFactory(containerType.getFactory(), SegmentedRangeQueryContainer.getDefaultPool());
+    }
+
+    @Benchmark
+    public IntRangeContainer createContainer() {
+        return factory.createContainer(data);
+    }
+
+}
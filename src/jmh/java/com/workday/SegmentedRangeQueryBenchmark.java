@@ -0,0 +1,99 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures {@link IntRangeContainer#findIdsInRange(long, long, boolean, boolean)} of the segmented container as the data grows past 32k
+ * 
+ * @author eiathom
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SegmentedRangeQueryBenchmark {
+
+    private static final int NUMBER_OF_QUERIES = 1024;
+
+    private static final long SEED = 42L;
+
+    @Param({ "32000", "1000000", "10000000" })
+    public int size;
+
+    @Param({ "UNIFORM" })
+    public ValueDistribution distribution;
+
+    /**
+     * fraction of the container each query is expected to match
+     */
+    @Param({ "0.0001", "0.01" })
+    public double selectivity;
+
+    private IntRangeContainer container;
+
+    private final long[] fromValues = new long[NUMBER_OF_QUERIES];
+
+    private final long[] toValues = new long[NUMBER_OF_QUERIES];
+
+    private int query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final long[] data = distribution.generate(size, SEED);
+        container = new SegmentedRangeQueryContainerFactory().createContainer(data);
+        Arrays.sort(data);
+        final int width = Math.max(1, (int) (selectivity * size));
+        final Random random = new Random(SEED);
+        for (int index = 0; index < NUMBER_OF_QUERIES; index++) {
+            final int start = random.nextInt(size - width + 1);
+            fromValues[index] = data[start];
+            toValues[index] = data[start + width - 1];
+        }
+    }
+
+    @Benchmark
+    public long findIdsInRange() {
+        query = (query + 1) & (NUMBER_OF_QUERIES - 1);
+        final IntIds ids = container.findIdsInRange(fromValues[query], toValues[query], true, true);
+        long checksum = 0;
+        int id;
+        while ((id = ids.nextId()) != IntIds.END_OF_IDS) {
+            checksum += id;
+        }
+        return checksum;
+    }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Random;
+
+/**
+ * shapes of net salary data used by the benchmarks
+ * 
+ * @author eiathom
+ *
+ */
+public enum ValueDistribution {
+
+    /**
+     * every salary between the minimum and maximum is equally likely
+     */
+    UNIFORM {
+        @Override
+        long nextValue(final Random random) {
+            return MINIMUM_NET_SALARY + (long) (random.nextDouble() * SALARY_SPAN);
+        }
+    },
+
+    /**
+     * most salaries cluster at the low end with a long tail of high earners
+     */
+    SKEWED {
+        @Override
+        long nextValue(final Random random) {
+            final double uniform = random.nextDouble();
+            return MINIMUM_NET_SALARY + (long) (uniform * uniform * uniform * SALARY_SPAN);
+        }
+    },
+
+    /**
+     * salaries are drawn from a small set of pay grades so most values are shared by many workers
+     */
+    DUPLICATED {
+        @Override
+        long nextValue(final Random random) {
+            return MINIMUM_NET_SALARY + random.nextInt(PAY_GRADES) * (SALARY_SPAN / PAY_GRADES);
+        }
+    };
+
+    private static final long MINIMUM_NET_SALARY = 1000;
+
+    private static final long MAXIMUM_NET_SALARY = 75000;
+
+    private static final long SALARY_SPAN = MAXIMUM_NET_SALARY - MINIMUM_NET_SALARY;
+
+    private static final int PAY_GRADES = 50;
+
+    abstract long nextValue(final Random random);
+
+    /**
+     * @param size
+     * @param seed
+     * @return size values following this distribution, the same for the same seed
+     */
+    public long[] generate(final int size, final long seed) {
+        final Random random = new Random(seed);
+        final long[] data = new long[size];
+        for (int index = 0; index < size; index++) {
+            data[index] = nextValue(random);
+        }
+        return data;
+    }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**<p>
+ * factory profiling the data of each container, see {@link DataStatistics}, and building it in the layout suiting that data:</br>
+ * {@link ContainerLayout#DENSE_BUCKETS} when the values span less than DENSE_SPAN_FACTOR buckets per value,</br>
+ * {@link ContainerLayout#POSTING_LISTS} when values are shared by DUPLICATION_FACTOR ids on average,
+ * or the most frequent value holds 1 in SKEWED_SHARE ids,</br>
+ * {@link ContainerLayout#SORTED_ARRAY} otherwise
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public class AdaptiveRangeQueryContainerFactory implements RangeQueryContainerFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveRangeQueryContainerFactory.class);
+
+    /**
+     * a dense layout costs an int and a long per bucket, so at most this many buckets are spent per value
+     */
+    private static final int DENSE_SPAN_FACTOR = 2;
+
+    private static final int DUPLICATION_FACTOR = 8;
+
+    private static final int SKEWED_SHARE = 4;
+
+    @Override
+    public RangeContainer createContainer(final long[] data) {
+        final DataStatistics statistics = DataStatistics.of(data);
+        final ContainerLayout layout = chooseLayout(statistics);
+        LOGGER.trace("building a {} container for {}", layout, statistics);
+        return layout.createContainer(data);
+    }
+
+    /**
+     * @param statistics
+     * @return the layout {@link #createContainer(long[])} builds for data of these statistics
+     */
+    public ContainerLayout chooseLayout(final DataStatistics statistics) {
+        if (statistics.getSize() == 0) {
+            return ContainerLayout.SORTED_ARRAY;
+        }
+        if (statistics.getSpan() < (long) statistics.getSize() * DENSE_SPAN_FACTOR) {
+            return ContainerLayout.DENSE_BUCKETS;
+        }
+        if ((long) statistics.getDistinctCount() * DUPLICATION_FACTOR <= statistics.getSize()
+                || (long) statistics.getLargestDuplicateCount() * SKEWED_SHARE >= statistics.getSize()) {
+            return ContainerLayout.POSTING_LISTS;
+        }
+        return ContainerLayout.SORTED_ARRAY;
+    }
+
+}
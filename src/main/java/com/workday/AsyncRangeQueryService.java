@@ -0,0 +1,156 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**<p>
+ * asynchronous facade over a container, every query returns a {@link CompletableFuture} completed on the given executor</br>
+ * identical {@link #findIdsInRange(long, long, boolean, boolean)} requests in flight at once, compared on their normalized range,
+ * share one computation, each caller still receives its own {@link Ids} to read
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class AsyncRangeQueryService {
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    private final RangeContainer container;
+
+    private final Executor executor;
+
+    /**
+     * results being computed, removed once complete
+     */
+    private final ConcurrentMap<NormalizedRange, CompletableFuture<short[]>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * @param container the container answering queries
+     * @param executor runs the queries, see {@link #newVirtualThreadExecutor()}
+     */
+    public AsyncRangeQueryService(final RangeContainer container, final Executor executor) {
+        this.container = container;
+        this.executor = executor;
+    }
+
+    /**
+     * @return an executor starting a virtual thread per query where the runtime has them (Java 21 onwards),
+     * otherwise one reusing daemon platform threads
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "range-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @param fromValue
+     * @param toValue
+     * @param fromInclusive
+     * @param toInclusive
+     * @return the matching ids, see {@link RangeContainer#findIdsInRange(long, long, boolean, boolean)}
+     */
+    public CompletableFuture<Ids> findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return CompletableFuture.completedFuture(new WorkerIds(DEFAULT_IDS_ARRAY));
+        }
+        final NormalizedRange range = NormalizedRange.of(fromValue, toValue, fromInclusive, toInclusive);
+        final CompletableFuture<short[]> result = new CompletableFuture<>();
+        final CompletableFuture<short[]> running = inFlight.putIfAbsent(range, result);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return running.thenApply(WorkerIds::new);
+        }
+        try {
+            executor.execute(() -> {
+                final short[] ids;
+                try {
+                    ids = ContainerHelper.toArray(container.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive));
+                } catch (final RuntimeException | Error e) {
+                    inFlight.remove(range, result);
+                    result.completeExceptionally(e);
+                    return;
+                }
+                // removed before completing, so a query made once a caller has its answer computes afresh
+                inFlight.remove(range, result);
+                result.complete(ids);
+            });
+        } catch (final RuntimeException e) {
+            inFlight.remove(range, result);
+            result.completeExceptionally(e);
+        }
+        return result.thenApply(WorkerIds::new);
+    }
+
+    /**
+     * @return see {@link RangeContainer#countInRange(long, long, boolean, boolean)}
+     */
+    public CompletableFuture<Integer> countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return CompletableFuture.supplyAsync(() -> container.countInRange(fromValue, toValue, fromInclusive, toInclusive), executor);
+    }
+
+    /**
+     * @return see {@link RangeContainer#sumInRange(long, long, boolean, boolean)}
+     */
+    public CompletableFuture<Long> sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return CompletableFuture.supplyAsync(() -> container.sumInRange(fromValue, toValue, fromInclusive, toInclusive), executor);
+    }
+
+    /**
+     * @return see {@link RangeContainer#minInRange(long, long, boolean, boolean)}
+     */
+    public CompletableFuture<Long> minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return CompletableFuture.supplyAsync(() -> container.minInRange(fromValue, toValue, fromInclusive, toInclusive), executor);
+    }
+
+    /**
+     * @return see {@link RangeContainer#maxInRange(long, long, boolean, boolean)}
+     */
+    public CompletableFuture<Long> maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return CompletableFuture.supplyAsync(() -> container.maxInRange(fromValue, toValue, fromInclusive, toInclusive), executor);
+    }
+
+    /**
+     * @return the number of requests answered by a computation already in flight
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+}
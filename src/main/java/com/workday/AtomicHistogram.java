@@ -0,0 +1,107 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**<p>
+ * histogram of non-negative values in power of two buckets, bucket n counts values below 2^n and at or above 2^(n - 1)</br>
+ * recording is a few atomic increments, it never locks or allocates, and is safe from any thread
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class AtomicHistogram {
+
+    private static final int NUMBER_OF_BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * sum of the values recorded, held at Long.MAX_VALUE once it would overflow
+     */
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * @param value recorded, negative values are recorded as 0
+     */
+    public void record(final long value) {
+        final long recorded = Math.max(0, value);
+        buckets.incrementAndGet(Math.min(NUMBER_OF_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(recorded)));
+        count.incrementAndGet();
+        sum.accumulateAndGet(recorded, AtomicHistogram::saturatedAdd);
+    }
+
+    /**
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the mean of the values recorded, 0 if none, a lower bound once their sum exceeds Long.MAX_VALUE
+     */
+    public double getMean() {
+        final long recorded = count.get();
+        return recorded == 0 ? 0 : (double) sum.get() / recorded;
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return an upper bound, within a factor of 2, of the value at quantile, 0 if nothing is recorded
+     */
+    public long getQuantileUpperBound(final double quantile) {
+        final long[] counts = getBucketCounts();
+        long total = 0;
+        for (final long bucketCount : counts) {
+            total += bucketCount;
+        }
+        final long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank && seen > 0) {
+                return bucket == NUMBER_OF_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the count of each bucket, read one bucket at a time while recording may go on
+     */
+    public long[] getBucketCounts() {
+        final long[] counts = new long[NUMBER_OF_BUCKETS];
+        for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+            counts[bucket] = buckets.get(bucket);
+        }
+        return counts;
+    }
+
+    /**
+     * @return first plus second, or Long.MAX_VALUE if that overflows, both being non-negative
+     */
+    private static long saturatedAdd(final long first, final long second) {
+        final long sum = first + second;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * worker ids held as a bit set over the id space, bit n of the set is worker id n.
+ * ids come out in ascending order by walking the set bits, no sorting is needed
+ * 
+ * @author eiathom
+ *
+ */
+public class BitSetWorkerIds implements Ids {
+
+    private final long[] words;
+
+    private int wordIndex;
+
+    /**
+     * bits of the current word not yet returned
+     */
+    private long word;
+
+    /**
+     * @param words bit set of worker ids, see {@link ContainerHelper#newIdBitSet(int)}
+     */
+    public BitSetWorkerIds(final long[] words) {
+        this.words = words;
+        if (words.length > 0) {
+            word = words[0];
+        }
+    }
+
+    @Override
+    public short nextId() {
+        while (word == 0) {
+            if (wordIndex + 1 >= words.length) {
+                return Ids.END_OF_IDS;
+            }
+            word = words[++wordIndex];
+        }
+        final int bit = Long.numberOfTrailingZeros(word);
+        word &= word - 1;
+        return (short) ((wordIndex << 6) + bit);
+    }
+
+    @Override
+    public int nextIds(final short[] buffer) {
+        int count = 0;
+        while (count < buffer.length) {
+            while (word == 0) {
+                if (wordIndex + 1 >= words.length) {
+                    return count;
+                }
+                word = words[++wordIndex];
+            }
+            buffer[count++] = (short) ((wordIndex << 6) + Long.numberOfTrailingZeros(word));
+            word &= word - 1;
+        }
+        return count;
+    }
+
+}
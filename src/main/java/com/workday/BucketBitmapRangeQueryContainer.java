@@ -0,0 +1,232 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.firstPositionAbove;
+import static com.workday.ContainerHelper.firstPositionAtOrAbove;
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+import static com.workday.ContainerHelper.newIdBitSet;
+import static com.workday.ContainerHelper.setId;
+import static com.workday.ContainerHelper.sortByValue;
+
+import java.util.Arrays;
+
+/**<p>
+ * container holding worker net salary data in a sorted column split into equal buckets of sorted positions,
+ * with a precomputed id bit set per bucket boundary</br>
+ * prefixBitSets[bucket] holds the ids of every bucket before bucket, so the ids of the whole buckets in a range are
+ * one AND NOT of two of these bit sets, a word at a time, whatever the number of buckets or matching ids</br>
+ * the positions in range within the two edge buckets are set one by one, costing at most a bucket each</br>
+ * results come out as a bit set, already in ascending id order, nothing is copied or sorted
+ * </p>
+ * <p>
+ * costs a bit per id per bucket, DEFAULT_NUMBER_OF_BUCKETS buckets cost 8 bytes per id,
+ * results matching fewer than 1 in BIT_SET_SELECTIVITY ids are still copied and sorted, as that beats a pass over the bit sets
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class BucketBitmapRangeQueryContainer implements RangeContainer {
+
+    /**
+     * default number of buckets the sorted values are split into
+     */
+    public static final int DEFAULT_NUMBER_OF_BUCKETS = 64;
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    /**
+     * results matching more than 1 in this many ids are answered from the bit sets rather than sorted
+     */
+    private static final int BIT_SET_SELECTIVITY = 64;
+
+    /**
+     * container data values, sorted from lower to higher
+     */
+    private final long[] values;
+
+    /**
+     * ids[position] is the id holding values[position]
+     */
+    private final short[] ids;
+
+    /**
+     * prefixSums[position] is the sum of every value before position
+     */
+    private final long[] prefixSums;
+
+    /**
+     * bucket n holds the sorted positions n * bucketSize to (n + 1) * bucketSize - 1
+     */
+    private final int bucketSize;
+
+    /**
+     * prefixBitSets[bucket] is the bit set of the ids in every bucket before bucket, from no bucket to every bucket
+     */
+    private final long[][] prefixBitSets;
+
+    /**
+     * @param data the data to be contained in this container
+     */
+    public BucketBitmapRangeQueryContainer(final long[] data) {
+        this(data, DEFAULT_NUMBER_OF_BUCKETS);
+    }
+
+    /**
+     * @param data the data to be contained in this container
+     * @param numberOfBuckets the number of buckets to split the sorted values into, more buckets cost more memory and narrow the edges
+     */
+    public BucketBitmapRangeQueryContainer(final long[] data, final int numberOfBuckets) {
+        if (numberOfBuckets < 1) {
+            throw new IllegalArgumentException("numberOfBuckets must be positive: " + numberOfBuckets);
+        }
+        this.values = new long[data.length];
+        this.ids = sortByValue(data, this.values);
+        this.prefixSums = new long[data.length + 1];
+        for (int position = 0; position < data.length; position++) {
+            this.prefixSums[position + 1] = this.prefixSums[position] + this.values[position];
+        }
+        this.bucketSize = Math.max(1, (data.length + numberOfBuckets - 1) / numberOfBuckets);
+        final int bucketCount = (data.length + bucketSize - 1) / bucketSize;
+        this.prefixBitSets = new long[bucketCount + 1][];
+        long[] bitSet = newIdBitSet(data.length);
+        prefixBitSets[0] = bitSet;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            bitSet = bitSet.clone();
+            for (int position = bucket * bucketSize; position < Math.min(data.length, (bucket + 1) * bucketSize); position++) {
+                setId(bitSet, ids[position]);
+            }
+            prefixBitSets[bucket + 1] = bitSet;
+        }
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        if (startPosition >= endPosition) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        if ((endPosition - startPosition) * BIT_SET_SELECTIVITY <= this.ids.length) {
+            final short[] ids = Arrays.copyOfRange(this.ids, startPosition, endPosition);
+            Arrays.sort(ids);
+            return new WorkerIds(ids);
+        }
+        return new BitSetWorkerIds(getIdBitSet(startPosition, endPosition));
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        return Math.max(0, getEndPosition(fromValue, toValue, toInclusive) - getStartPosition(fromValue, toValue, fromInclusive));
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        return startPosition >= endPosition ? 0 : prefixSums[endPosition] - prefixSums[startPosition];
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        return startPosition >= getEndPosition(fromValue, toValue, toInclusive) ? NO_VALUE : values[startPosition];
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        return getStartPosition(fromValue, toValue, fromInclusive) >= endPosition ? NO_VALUE : values[endPosition - 1];
+    }
+
+    /**
+     * @return the first sorted position in range
+     */
+    private int getStartPosition(final long fromValue, final long toValue, final boolean fromInclusive) {
+        return firstPositionAbove(values, getCorrectLowerRange(fromValue, toValue, fromInclusive));
+    }
+
+    /**
+     * @return the sorted position after the last in range
+     */
+    private int getEndPosition(final long fromValue, final long toValue, final boolean toInclusive) {
+        return firstPositionAtOrAbove(values, getCorrectUpperRange(fromValue, toValue, toInclusive));
+    }
+
+    /**
+     * @param startPosition
+     * @param endPosition
+     * @return bit set of the ids between the sorted positions, whole buckets from the prefix bit sets and the edges set one by one
+     */
+    private long[] getIdBitSet(final int startPosition, final int endPosition) {
+        // whole buckets in range are firstBucket to lastBucket - 1
+        final int firstBucket = (startPosition + bucketSize - 1) / bucketSize;
+        final int lastBucket = endPosition / bucketSize;
+        final long[] bitSet;
+        int edgeEnd = endPosition;
+        if (firstBucket < lastBucket) {
+            final long[] below = prefixBitSets[firstBucket];
+            final long[] through = prefixBitSets[lastBucket];
+            bitSet = new long[through.length];
+            for (int word = 0; word < bitSet.length; word++) {
+                bitSet[word] = through[word] & ~below[word];
+            }
+            edgeEnd = firstBucket * bucketSize;
+            for (int position = lastBucket * bucketSize; position < endPosition; position++) {
+                setId(bitSet, ids[position]);
+            }
+        } else {
+            bitSet = newIdBitSet(ids.length);
+        }
+        for (int position = startPosition; position < edgeEnd; position++) {
+            setId(bitSet, ids[position]);
+        }
+        return bitSet;
+    }
+
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**<p>
+ * decorator caching the results of {@link #findIdsInRange(long, long, boolean, boolean)} of any container</br>
+ * results are keyed on the normalized, exclusive range, so requests naming the same values with different inclusivity share an entry</br>
+ * the cache is bounded by the bytes its results hold, least recently used results are evicted first</br>
+ * a cached result is held as a plain array of ids, every hit hands out a new {@link WorkerIds} reading that array,
+ * so callers never share iterator state
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class CachingRangeContainer implements RangeContainer {
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    /**
+     * default bound on the bytes held by cached results
+     */
+    public static final long DEFAULT_MAXIMUM_BYTES = 16L * 1024 * 1024;
+
+    /**
+     * approximate bytes taken by a cache entry besides its ids: map entry, key and array header
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final RangeContainer container;
+
+    private final long maximumBytes;
+
+    /**
+     * access ordered, guarded by itself
+     */
+    private final LinkedHashMap<NormalizedRange, short[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * bytes held by the cache, guarded by cache
+     */
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param container the container to answer queries missing the cache
+     */
+    public CachingRangeContainer(final RangeContainer container) {
+        this(container, DEFAULT_MAXIMUM_BYTES);
+    }
+
+    /**
+     * @param container the container to answer queries missing the cache
+     * @param maximumBytes bound on the bytes held by cached results, results larger than this are never cached
+     */
+    public CachingRangeContainer(final RangeContainer container, final long maximumBytes) {
+        if (maximumBytes < 0) {
+            throw new IllegalArgumentException("maximumBytes must not be negative");
+        }
+        this.container = container;
+        this.maximumBytes = maximumBytes;
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final NormalizedRange range = NormalizedRange.of(fromValue, toValue, fromInclusive, toInclusive);
+        short[] ids;
+        synchronized (cache) {
+            ids = cache.get(range);
+        }
+        if (ids != null) {
+            hits.incrementAndGet();
+            return new WorkerIds(ids);
+        }
+        misses.incrementAndGet();
+        // computed outside the lock, threads missing on the same range at once each compute it and the last one is kept
+        ids = ContainerHelper.toArray(container.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive));
+        put(range, ids);
+        return new WorkerIds(ids);
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return container.countInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return container.sumInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return container.minInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return container.maxInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    /**
+     * @return the number of queries answered from the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of queries answered by the decorated container
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of results evicted to keep within the memory bound
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the approximate bytes held by cached results
+     */
+    public long getCachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    /**
+     * caches ids for range, evicting least recently used results until the cache is back within its bound
+     */
+    private void put(final NormalizedRange range, final short[] ids) {
+        final long bytes = getBytes(ids);
+        if (bytes > maximumBytes) {
+            return;
+        }
+        synchronized (cache) {
+            final short[] replaced = cache.put(range, ids);
+            cachedBytes += bytes;
+            if (replaced != null) {
+                cachedBytes -= getBytes(replaced);
+            }
+            final Iterator<Map.Entry<NormalizedRange, short[]>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > maximumBytes) {
+                cachedBytes -= getBytes(eldest.next().getValue());
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static long getBytes(final short[] ids) {
+        return ENTRY_OVERHEAD_BYTES + 2L * ids.length;
+    }
+
+}
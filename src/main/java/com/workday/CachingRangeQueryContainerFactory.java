@@ -0,0 +1,51 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * builds containers of another factory behind a {@link CachingRangeContainer}
+ * 
+ * @author eiathom
+ *
+ */
+public class CachingRangeQueryContainerFactory implements RangeQueryContainerFactory {
+
+    private final RangeQueryContainerFactory factory;
+
+    private final long maximumBytes;
+
+    /**
+     * @param factory builds the decorated containers
+     */
+    public CachingRangeQueryContainerFactory(final RangeQueryContainerFactory factory) {
+        this(factory, CachingRangeContainer.DEFAULT_MAXIMUM_BYTES);
+    }
+
+    /**
+     * @param factory builds the decorated containers
+     * @param maximumBytes bound on the bytes held by the cached results of each container
+     */
+    public CachingRangeQueryContainerFactory(final RangeQueryContainerFactory factory, final long maximumBytes) {
+        this.factory = factory;
+        this.maximumBytes = maximumBytes;
+    }
+
+    @Override
+    public RangeContainer createContainer(final long[] data) {
+        return new CachingRangeContainer(factory.createContainer(data), maximumBytes);
+    }
+
+}
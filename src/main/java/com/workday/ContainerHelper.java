@@ -15,9 +15,8 @@
  */
 package com.workday;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -28,9 +27,22 @@ import java.util.Map;
  */
 public final class ContainerHelper {
 
-    private static final long[] ranges = new long[2];
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
 
-    private static final List<Short> values = new ArrayList<>();
+    /**
+     * bits of a packed sort key holding the id, the value offset sits above them
+     */
+    private static final int ID_BITS = 16;
+
+    /**
+     * bits sorted by each pass of the radix sort
+     */
+    private static final int RADIX_BITS = 11;
+
+    /**
+     * below this many values the packed keys are sorted by comparison, a radix pass costs more than it saves
+     */
+    private static final int RADIX_SORT_THRESHOLD = 4096;
 
     private ContainerHelper() {}
 
@@ -52,24 +64,59 @@ public final class ContainerHelper {
      * @return correct range query parameters
      */
     public static long[] getCorrectRanges(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
-        ranges[0] = fromValue;
-        ranges[1] = toValue;
-        if (toValue < fromValue) {
-            ranges[0] = toValue;
-            ranges[1] = fromValue;
-        }
-        if (!fromInclusive && !toInclusive) {
-            return ranges;
-        } else if (!fromInclusive && toInclusive) {
-            ranges[1] = checkMaximum(ranges[1]) + 1;
-            return ranges;
-        } else if (fromInclusive && !toInclusive) {
-            ranges[0] = ranges[0] - 1;
-            return ranges;
-        }
-        ranges[0] = ranges[0] - 1;
-        ranges[1] = checkMaximum(ranges[1]) + 1;
-        return ranges;
+        return new long[] {
+            getCorrectLowerRange(fromValue, toValue, fromInclusive),
+            getCorrectUpperRange(fromValue, toValue, toInclusive)
+        };
+    }
+
+    /**
+     * allocation free form of {@link #getCorrectRanges(long, long, boolean, boolean)}, safe to call from any thread
+     * 
+     * @param fromValue
+     * @param toValue
+     * @param fromInclusive
+     * @return the exclusive lower range parameter
+     */
+    public static long getCorrectLowerRange(final long fromValue, final long toValue, final boolean fromInclusive) {
+        final long lowerValue = Math.min(fromValue, toValue);
+        return fromInclusive ? lowerValue - 1 : lowerValue;
+    }
+
+    /**
+     * allocation free form of {@link #getCorrectRanges(long, long, boolean, boolean)}, safe to call from any thread
+     * 
+     * @param fromValue
+     * @param toValue
+     * @param toInclusive
+     * @return the exclusive upper range parameter
+     */
+    public static long getCorrectUpperRange(final long fromValue, final long toValue, final boolean toInclusive) {
+        final long upperValue = Math.max(fromValue, toValue);
+        return toInclusive ? checkMaximum(upperValue) + 1 : upperValue;
+    }
+
+    /**
+     * specific case where a range distance is 0 and exclusive
+     * 
+     * @param fromValue
+     * @param toValue
+     * @param fromInclusive
+     * @param toInclusive
+     * @return a check on whether to proceed
+     */
+    public static boolean isUnProcessibleQuery(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return (fromValue == toValue) && (!fromInclusive || !toInclusive);
+    }
+
+    /**
+     * @param fromValue
+     * @param toValue
+     * 
+     * @return whether input is correct to continue
+     */
+    public static boolean isInValidInput(final long fromValue, final long toValue) {
+        return fromValue < 0 && toValue < 0;
     }
 
     private static long checkMaximum(final long value) {
@@ -79,6 +126,99 @@ public final class ContainerHelper {
         return value - 1;
     }
 
+    /**
+     * @param sortedValues
+     * @param value
+     * @return the first position holding a value strictly greater than value
+     */
+    public static int firstPositionAbove(final long[] sortedValues, final long value) {
+        return firstPositionAbove(sortedValues, 0, sortedValues.length, value);
+    }
+
+    /**
+     * @param sortedValues
+     * @param value
+     * @return the first position holding a value greater than or equal to value
+     */
+    public static int firstPositionAtOrAbove(final long[] sortedValues, final long value) {
+        return firstPositionAtOrAbove(sortedValues, 0, sortedValues.length, value);
+    }
+
+    /**
+     * @param sortedValues
+     * @param fromPosition first position to search
+     * @param toPosition position after the last to search
+     * @param value
+     * @return the first position between fromPosition and toPosition holding a value strictly greater than value
+     */
+    public static int firstPositionAbove(final long[] sortedValues, final int fromPosition, final int toPosition, final long value) {
+        int low = fromPosition;
+        int high = toPosition;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (sortedValues[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param sortedValues
+     * @param fromPosition first position to search
+     * @param toPosition position after the last to search
+     * @param value
+     * @return the first position between fromPosition and toPosition holding a value greater than or equal to value
+     */
+    public static int firstPositionAtOrAbove(final long[] sortedValues, final int fromPosition, final int toPosition, final long value) {
+        int low = fromPosition;
+        int high = toPosition;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (sortedValues[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * answers a batch of range queries one query at a time
+     * 
+     * @param container
+     * @param fromValues
+     * @param toValues
+     * @param fromInclusive
+     * @param toInclusive
+     * @return one Ids per range
+     */
+    public static Ids[] findIdsInRanges(final RangeContainer container, final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        checkRanges(fromValues, toValues, fromInclusive, toInclusive);
+        final Ids[] ids = new Ids[fromValues.length];
+        for (int range = 0; range < ids.length; range++) {
+            ids[range] = container.findIdsInRange(fromValues[range], toValues[range], fromInclusive[range], toInclusive[range]);
+        }
+        return ids;
+    }
+
+    /**
+     * @param fromValues
+     * @param toValues
+     * @param fromInclusive
+     * @param toInclusive
+     * @throws IllegalArgumentException when the arrays do not describe the same number of ranges
+     */
+    public static void checkRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        final int numberOfRanges = fromValues.length;
+        if (toValues.length != numberOfRanges || fromInclusive.length != numberOfRanges || toInclusive.length != numberOfRanges) {
+            throw new IllegalArgumentException("range arrays differ in length");
+        }
+    }
+
     /**
      * @return a comparator of values of longs
      */
@@ -103,17 +243,157 @@ public final class ContainerHelper {
         }
     }
 
+    /**
+     * places each id at the position of its value in the sorted values, equal values are filled in id order
+     * 
+     * @param data the unsorted input data, indexed by id
+     * @param sortedValues the input data sorted
+     * @return ids ordered as sortedValues, the id at a position holds the value at the same position
+     */
+    public static short[] getIdsInValueOrder(final long[] data, final long[] sortedValues) {
+        final short[] ids = new short[data.length];
+        final int[] taken = new int[sortedValues.length];
+        for (int id = 0; id < data.length; id++) {
+            final int position = firstPositionAtOrAbove(sortedValues, data[id]);
+            ids[position + taken[position]++] = (short) id;
+        }
+        return ids;
+    }
+
+    /**<p>
+     * sorts data into sortedValues and returns the id of each sorted value, equal values in id order</br>
+     * when the spread of values fits 47 bits each (value, id) pair is packed into one primitive key,
+     * the value offset from the minimum above the id, and the keys are radix sorted over the value bits only,
+     * the sign bit of a key is never set, so small inputs can use a signed comparison sort of the keys,
+     * keys start in id order and every pass is stable, so equal values keep their ids ascending</br>
+     * wider spreads fall back to a comparison sort followed by {@link #getIdsInValueOrder(long[], long[])}
+     * </p>
+     * 
+     * @param data the unsorted input data, indexed by id
+     * @param sortedValues filled with data, sorted from lower to higher
+     * @return ids ordered as sortedValues, the id at a position holds the value at the same position
+     */
+    public static short[] sortByValue(final long[] data, final long[] sortedValues) {
+        final int size = data.length;
+        if (size == 0) {
+            return DEFAULT_IDS_ARRAY;
+        }
+        long minimum = data[0];
+        long maximum = data[0];
+        for (final long value : data) {
+            minimum = Math.min(minimum, value);
+            maximum = Math.max(maximum, value);
+        }
+        final long span = maximum - minimum;
+        if (span < 0 || span >>> (Long.SIZE - 1 - ID_BITS) != 0) {
+            System.arraycopy(data, 0, sortedValues, 0, size);
+            Arrays.sort(sortedValues);
+            return getIdsInValueOrder(data, sortedValues);
+        }
+        long[] keys = new long[size];
+        for (int id = 0; id < size; id++) {
+            keys[id] = (data[id] - minimum) << ID_BITS | id;
+        }
+        if (size < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(keys);
+        } else {
+            final int keyBits = ID_BITS + Long.SIZE - Long.numberOfLeadingZeros(span);
+            long[] buffer = new long[size];
+            final int[] counts = new int[(1 << RADIX_BITS) + 1];
+            for (int shift = ID_BITS; shift < keyBits; shift += RADIX_BITS) {
+                radixPass(keys, buffer, counts, shift);
+                final long[] sorted = buffer;
+                buffer = keys;
+                keys = sorted;
+            }
+        }
+        final short[] ids = new short[size];
+        for (int position = 0; position < size; position++) {
+            ids[position] = (short) keys[position];
+            sortedValues[position] = minimum + (keys[position] >>> ID_BITS);
+        }
+        return ids;
+    }
+
+    /**
+     * one stable counting sort pass of keys into sorted, on the RADIX_BITS bits from shift
+     */
+    private static void radixPass(final long[] keys, final long[] sorted, final int[] counts, final int shift) {
+        final int mask = (1 << RADIX_BITS) - 1;
+        Arrays.fill(counts, 0);
+        for (final long key : keys) {
+            counts[((int) (key >>> shift) & mask) + 1]++;
+        }
+        for (int digit = 0; digit < mask + 1; digit++) {
+            counts[digit + 1] += counts[digit];
+        }
+        for (final long key : keys) {
+            sorted[counts[(int) (key >>> shift) & mask]++] = key;
+        }
+    }
+
     /**
      * @param data
      * @return array representation of values
      */
     public static short[] getAsSortedArray(final Collection<Short> data) {
-        values.clear();
-        values.addAll(data);
-        if (values.size() > 1) {
-            Collections.sort(values);
+        final short[] array = new short[data.size()];
+        int index = 0;
+        for (final Short value : data) {
+            array[index++] = value;
+        }
+        if (array.length > 1) {
+            Arrays.sort(array);
+        }
+        return array;
+    }
+
+    /**
+     * @param numberOfIds size of the id space
+     * @return an empty bit set able to hold every id below numberOfIds
+     */
+    public static long[] newIdBitSet(final int numberOfIds) {
+        return new long[(numberOfIds + 63) >>> 6];
+    }
+
+    /**
+     * @param bitSet
+     * @param id the id to add to bitSet
+     */
+    public static void setId(final long[] bitSet, final short id) {
+        bitSet[id >>> 6] |= 1L << id;
+    }
+
+    /**
+     * @param data
+     * @param numberOfIds size of the id space
+     * @return bit set representation of values
+     */
+    public static long[] getAsIdBitSet(final Collection<Short> data, final int numberOfIds) {
+        final long[] bitSet = newIdBitSet(numberOfIds);
+        for (final Short value : data) {
+            setId(bitSet, value);
+        }
+        return bitSet;
+    }
+
+    /**
+     * @param ids read to the end
+     * @return the remaining ids, in order
+     */
+    public static short[] toArray(final Ids ids) {
+        final short[] buffer = new short[256];
+        short[] array = DEFAULT_IDS_ARRAY;
+        int size = 0;
+        int read;
+        while ((read = ids.nextIds(buffer)) > 0) {
+            if (size + read > array.length) {
+                array = Arrays.copyOf(array, Math.max(size + read, 2 * array.length));
+            }
+            System.arraycopy(buffer, 0, array, size, read);
+            size += read;
         }
-        return toArray(values);
+        return size == array.length ? array : Arrays.copyOf(array, size);
     }
 
     /**
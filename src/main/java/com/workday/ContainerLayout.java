@@ -0,0 +1,63 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * internal representations a container can be built with, see {@link AdaptiveRangeQueryContainerFactory}
+ * 
+ * @author eiathom
+ *
+ */
+public enum ContainerLayout {
+
+    /**
+     * one bucket of ids per value between the minimum and maximum, boundaries are found by indexing rather than searching,
+     * suited to values spanning a narrow range, see {@link DenseBucketRangeQueryContainer}
+     */
+    DENSE_BUCKETS {
+        @Override
+        RangeContainer createContainer(final long[] data) {
+            return new DenseBucketRangeQueryContainer(data);
+        }
+    },
+
+    /**
+     * a sorted primitive column of values, suited to any data, see {@link SortedArrayRangeQueryContainer}
+     */
+    SORTED_ARRAY {
+        @Override
+        RangeContainer createContainer(final long[] data) {
+            return new SortedArrayRangeQueryContainer(data);
+        }
+    },
+
+    /**
+     * one posting list per distinct value, suited to values shared by many ids, see {@link PostingListRangeQueryContainer}
+     */
+    POSTING_LISTS {
+        @Override
+        RangeContainer createContainer(final long[] data) {
+            return new PostingListRangeQueryContainer(data);
+        }
+    };
+
+    /**
+     * @param data
+     * @return a container of data in this layout
+     */
+    abstract RangeContainer createContainer(final long[] data);
+
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Arrays;
+
+/**
+ * profile of the data a container is built from, gathered in one pass over the sorted values
+ * 
+ * @author eiathom
+ *
+ */
+public final class DataStatistics {
+
+    private final int size;
+
+    private final int distinctCount;
+
+    private final long minimum;
+
+    private final long maximum;
+
+    private final int largestDuplicateCount;
+
+    private DataStatistics(final int size, final int distinctCount, final long minimum, final long maximum, final int largestDuplicateCount) {
+        this.size = size;
+        this.distinctCount = distinctCount;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.largestDuplicateCount = largestDuplicateCount;
+    }
+
+    /**
+     * @param data the data a container would be built from, not changed
+     * @return the statistics of data
+     */
+    public static DataStatistics of(final long[] data) {
+        if (data.length == 0) {
+            return new DataStatistics(0, 0, 0, 0, 0);
+        }
+        final long[] sortedValues = Arrays.copyOf(data, data.length);
+        Arrays.sort(sortedValues);
+        int distinctCount = 0;
+        int largestDuplicateCount = 0;
+        int start = 0;
+        for (int position = 1; position <= sortedValues.length; position++) {
+            if (position == sortedValues.length || sortedValues[position] != sortedValues[start]) {
+                distinctCount++;
+                largestDuplicateCount = Math.max(largestDuplicateCount, position - start);
+                start = position;
+            }
+        }
+        return new DataStatistics(data.length, distinctCount, sortedValues[0], sortedValues[sortedValues.length - 1], largestDuplicateCount);
+    }
+
+    /**
+     * @return the number of values
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of distinct values
+     */
+    public int getDistinctCount() {
+        return distinctCount;
+    }
+
+    /**
+     * @return the lowest value, 0 when there are no values
+     */
+    public long getMinimum() {
+        return minimum;
+    }
+
+    /**
+     * @return the highest value, 0 when there are no values
+     */
+    public long getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * @return the maximum less the minimum, Long.MAX_VALUE when that does not fit a long
+     */
+    public long getSpan() {
+        final long span = maximum - minimum;
+        return span < 0 ? Long.MAX_VALUE : span;
+    }
+
+    /**
+     * @return the number of values equal to the most frequent value
+     */
+    public int getLargestDuplicateCount() {
+        return largestDuplicateCount;
+    }
+
+    /**
+     * @return the mean number of values sharing a distinct value, 0 when there are no values
+     */
+    public double getMeanDuplicateCount() {
+        return distinctCount == 0 ? 0 : (double) size / distinctCount;
+    }
+
+    /**
+     * @return how many times more often than the mean distinct value the most frequent value occurs, 1 for evenly duplicated data
+     */
+    public double getSkew() {
+        return distinctCount == 0 ? 1 : largestDuplicateCount / getMeanDuplicateCount();
+    }
+
+    @Override
+    public String toString() {
+        return "DataStatistics [size=" + size + ", distinctCount=" + distinctCount + ", minimum=" + minimum + ", maximum=" + maximum
+                + ", largestDuplicateCount=" + largestDuplicateCount + "]";
+    }
+
+}
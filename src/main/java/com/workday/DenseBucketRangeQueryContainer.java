@@ -0,0 +1,281 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+import static com.workday.ContainerHelper.newIdBitSet;
+import static com.workday.ContainerHelper.setId;
+
+import java.util.Arrays;
+
+/**<p>
+ * container holding worker net salary data in one bucket per value between the lowest and highest value</br>
+ * the ids are laid out bucket after bucket, ids ascending within a bucket, by a counting sort with no comparisons</br>
+ * a range boundary is a bucket index computed from the value, so nothing is searched</br>
+ * costs an int and a long per bucket, suited to values spanning a narrow range, see {@link AdaptiveRangeQueryContainerFactory}
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class DenseBucketRangeQueryContainer implements PointLookupRangeContainer {
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    /**
+     * results matching more than 1 in this many ids are collected in a bit set rather than sorted
+     */
+    private static final int BIT_SET_SELECTIVITY = 64;
+
+    /**
+     * the value of bucket 0
+     */
+    private final long minimum;
+
+    /**
+     * the value of the last bucket
+     */
+    private final long maximum;
+
+    /**
+     * the ids holding minimum + bucket are ids[bucketStarts[bucket]] to ids[bucketStarts[bucket + 1] - 1]
+     */
+    private final int[] bucketStarts;
+
+    /**
+     * bucketSums[bucket] is the sum of the values in every bucket before bucket
+     */
+    private final long[] bucketSums;
+
+    /**
+     * ids in bucket order
+     */
+    private final short[] ids;
+
+    /**
+     * the data as given, idOrderedValues[id] is the value held by id
+     */
+    private final long[] idOrderedValues;
+
+    /**
+     * @param data the data to be contained in this container
+     * @throws IllegalArgumentException when the values span more buckets than an array can hold
+     */
+    public DenseBucketRangeQueryContainer(final long[] data) {
+        this.idOrderedValues = Arrays.copyOf(data, data.length);
+        this.ids = new short[data.length];
+        long minimum = 0;
+        long maximum = -1;
+        int numberOfBuckets = 0;
+        if (data.length > 0) {
+            minimum = data[0];
+            maximum = data[0];
+            for (final long value : data) {
+                minimum = Math.min(minimum, value);
+                maximum = Math.max(maximum, value);
+            }
+            // maximum is never below minimum, so the difference read unsigned is exact even where it overflows a long
+            final long span = maximum - minimum;
+            if (Long.compareUnsigned(span, Integer.MAX_VALUE - 2) > 0) {
+                throw new IllegalArgumentException("values span too many buckets: " + minimum + " to " + maximum);
+            }
+            numberOfBuckets = (int) span + 1;
+        }
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.bucketStarts = new int[numberOfBuckets + 1];
+        this.bucketSums = new long[numberOfBuckets + 1];
+        for (final long value : data) {
+            bucketStarts[(int) (value - minimum) + 1]++;
+        }
+        for (int bucket = 0; bucket < numberOfBuckets; bucket++) {
+            bucketSums[bucket + 1] = bucketSums[bucket] + bucketStarts[bucket + 1] * (minimum + bucket);
+            bucketStarts[bucket + 1] += bucketStarts[bucket];
+        }
+        final int[] filled = Arrays.copyOf(bucketStarts, numberOfBuckets);
+        for (int id = 0; id < data.length; id++) {
+            ids[filled[(int) (data[id] - minimum)]++] = (short) id;
+        }
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final int startBucket = getStartBucket(fromValue, toValue, fromInclusive);
+        final int endBucket = getEndBucket(fromValue, toValue, toInclusive);
+        if (startBucket >= endBucket) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        return getIds(bucketStarts[startBucket], bucketStarts[endBucket]);
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    /**
+     * the matching ids are a whole bucket, already in ascending order, and are returned without a copy
+     */
+    @Override
+    public Ids findIdsEqual(final long value) {
+        // an inclusive Long.MAX_VALUE bound is never matched by a range query, see ContainerHelper#getCorrectUpperRange
+        if (isInValidInput(value, value) || value == Long.MAX_VALUE || value < minimum || value > maximum) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final int bucket = (int) (value - minimum);
+        if (bucketStarts[bucket] == bucketStarts[bucket + 1]) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        return new WorkerIds(ids, bucketStarts[bucket], bucketStarts[bucket + 1]);
+    }
+
+    @Override
+    public long valueOf(final short id) {
+        if (id < 0 || id >= idOrderedValues.length) {
+            return NO_VALUE;
+        }
+        return idOrderedValues[id];
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final int startBucket = getStartBucket(fromValue, toValue, fromInclusive);
+        final int endBucket = getEndBucket(fromValue, toValue, toInclusive);
+        return startBucket >= endBucket ? 0 : bucketStarts[endBucket] - bucketStarts[startBucket];
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final int startBucket = getStartBucket(fromValue, toValue, fromInclusive);
+        final int endBucket = getEndBucket(fromValue, toValue, toInclusive);
+        return startBucket >= endBucket ? 0 : bucketSums[endBucket] - bucketSums[startBucket];
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int startBucket = getStartBucket(fromValue, toValue, fromInclusive);
+        final int endBucket = getEndBucket(fromValue, toValue, toInclusive);
+        if (startBucket >= endBucket || bucketStarts[startBucket] >= bucketStarts[endBucket]) {
+            return NO_VALUE;
+        }
+        return minimum + getBucketAt(bucketStarts[startBucket]);
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int startBucket = getStartBucket(fromValue, toValue, fromInclusive);
+        final int endBucket = getEndBucket(fromValue, toValue, toInclusive);
+        if (startBucket >= endBucket || bucketStarts[startBucket] >= bucketStarts[endBucket]) {
+            return NO_VALUE;
+        }
+        return minimum + getBucketAt(bucketStarts[endBucket] - 1);
+    }
+
+    /**
+     * @return the first bucket in range
+     */
+    private int getStartBucket(final long fromValue, final long toValue, final boolean fromInclusive) {
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        if (lowerRange < minimum) {
+            return 0;
+        }
+        if (lowerRange >= maximum) {
+            return bucketStarts.length - 1;
+        }
+        return (int) (lowerRange - minimum) + 1;
+    }
+
+    /**
+     * @return the bucket after the last in range
+     */
+    private int getEndBucket(final long fromValue, final long toValue, final boolean toInclusive) {
+        final long upperRange = getCorrectUpperRange(fromValue, toValue, toInclusive);
+        if (upperRange <= minimum) {
+            return 0;
+        }
+        if (upperRange > maximum) {
+            return bucketStarts.length - 1;
+        }
+        return (int) (upperRange - minimum);
+    }
+
+    /**
+     * @param position
+     * @return the bucket holding the id at position
+     */
+    private int getBucketAt(final int position) {
+        // the last bucket starting at or before position, empty buckets before it start at the same position
+        int low = 0;
+        int high = bucketStarts.length - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (bucketStarts[middle] <= position) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param startPosition
+     * @param endPosition
+     * @return the ids between the positions, in ascending order
+     */
+    private Ids getIds(final int startPosition, final int endPosition) {
+        if (startPosition >= endPosition) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        if ((endPosition - startPosition) * BIT_SET_SELECTIVITY > this.ids.length) {
+            final long[] bitSet = newIdBitSet(this.ids.length);
+            for (int position = startPosition; position < endPosition; position++) {
+                setId(bitSet, this.ids[position]);
+            }
+            return new BitSetWorkerIds(bitSet);
+        }
+        final short[] ids = Arrays.copyOfRange(this.ids, startPosition, endPosition);
+        Arrays.sort(ids);
+        return new WorkerIds(ids);
+    }
+
+}
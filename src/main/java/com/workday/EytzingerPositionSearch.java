@@ -0,0 +1,77 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**<p>
+ * search over a copy of the sorted values laid out in Eytzinger (breadth first tree) order</br>
+ * the children of the value at k sit at 2k and 2k + 1, so the first levels of every search share a few cache lines
+ * and each step picks its child by arithmetic rather than by a branch
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+final class EytzingerPositionSearch implements PositionSearch {
+
+    /**
+     * layout[k], for k from 1 to n, the values in tree order, layout[0] is unused
+     */
+    private final long[] layout;
+
+    /**
+     * positions[k] is the sorted position of layout[k], positions[0] is n, the position when no value is above
+     */
+    private final int[] positions;
+
+    EytzingerPositionSearch(final long[] sortedValues) {
+        this.layout = new long[sortedValues.length + 1];
+        this.positions = new int[sortedValues.length + 1];
+        this.positions[0] = sortedValues.length;
+        fill(sortedValues, 1, 0);
+    }
+
+    @Override
+    public int firstPositionAbove(final long value) {
+        int k = 1;
+        while (k < layout.length) {
+            k = 2 * k + (layout[k] <= value ? 1 : 0);
+        }
+        // undo the right turns taken after the last left turn, leaving the value the search last went left of
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return positions[k];
+    }
+
+    @Override
+    public int firstPositionAtOrAbove(final long value) {
+        return value == Long.MIN_VALUE ? 0 : firstPositionAbove(value - 1);
+    }
+
+    /**
+     * places the sorted values from position onwards into the subtree rooted at k, in order
+     * 
+     * @return the next sorted position to place
+     */
+    private int fill(final long[] sortedValues, final int k, final int position) {
+        if (k >= layout.length) {
+            return position;
+        }
+        int next = fill(sortedValues, 2 * k, position);
+        layout[k] = sortedValues[next];
+        positions[k] = next++;
+        return fill(sortedValues, 2 * k + 1, next);
+    }
+
+}
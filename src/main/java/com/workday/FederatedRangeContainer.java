@@ -0,0 +1,135 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**<p>
+ * container answering queries over many child containers, such as one per business unit</br>
+ * child n holds the ids from offsets[n], its id i is id offsets[n] + i here, children may be given in any order</br>
+ * every query is sent to all children at once on the executor, {@link #findIdsInRange(long, long, boolean, boolean)}
+ * merges the sorted ids of the children into one ascending stream as they arrive, see {@link MergingWorkerIds}
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class FederatedRangeContainer implements IntRangeContainer {
+
+    private final RangeContainer[] children;
+
+    private final int[] offsets;
+
+    private final Executor executor;
+
+    /**
+     * @param children the child containers
+     * @param offsets the first id of each child
+     */
+    public FederatedRangeContainer(final RangeContainer[] children, final int[] offsets) {
+        this(children, offsets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param children the child containers
+     * @param offsets the first id of each child
+     * @param executor runs the queries of the children
+     * @throws IllegalArgumentException when there is not one offset per child or an offset leaves a child's ids outside an int
+     */
+    public FederatedRangeContainer(final RangeContainer[] children, final int[] offsets, final Executor executor) {
+        if (children.length != offsets.length) {
+            throw new IllegalArgumentException("one offset is needed per child");
+        }
+        for (final int offset : offsets) {
+            if (offset < 0 || offset > Integer.MAX_VALUE - Short.MAX_VALUE) {
+                throw new IllegalArgumentException("offset out of range: " + offset);
+            }
+        }
+        this.children = children.clone();
+        this.offsets = offsets.clone();
+        this.executor = executor;
+    }
+
+    @Override
+    public IntIds findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final CompletableFuture<Ids>[] childIds = fanOut(child -> child.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive));
+        return new MergingWorkerIds(childIds, offsets);
+    }
+
+    @Override
+    public long countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long count = 0;
+        for (final CompletableFuture<Integer> childCount : fanOut(child -> child.countInRange(fromValue, toValue, fromInclusive, toInclusive))) {
+            count += childCount.join();
+        }
+        return count;
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long sum = 0;
+        for (final CompletableFuture<Long> childSum : fanOut(child -> child.sumInRange(fromValue, toValue, fromInclusive, toInclusive))) {
+            sum += childSum.join();
+        }
+        return sum;
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long min = NO_VALUE;
+        for (final CompletableFuture<Long> childMin : fanOut(child -> child.minInRange(fromValue, toValue, fromInclusive, toInclusive))) {
+            final long value = childMin.join();
+            if (value != NO_VALUE && (min == NO_VALUE || value < min)) {
+                min = value;
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long max = NO_VALUE;
+        for (final CompletableFuture<Long> childMax : fanOut(child -> child.maxInRange(fromValue, toValue, fromInclusive, toInclusive))) {
+            max = Math.max(max, childMax.join());
+        }
+        return max;
+    }
+
+    /**
+     * @return the query of every child, started on the executor
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private <T> CompletableFuture<T>[] fanOut(final ChildQuery<T> query) {
+        final CompletableFuture<T>[] results = new CompletableFuture[children.length];
+        for (int child = 0; child < children.length; child++) {
+            final RangeContainer container = children[child];
+            results[child] = CompletableFuture.supplyAsync(() -> query.run(container), executor);
+        }
+        return results;
+    }
+
+    /**
+     * a query of one child
+     */
+    private interface ChildQuery<T> {
+
+        T run(final RangeContainer child);
+
+    }
+
+}
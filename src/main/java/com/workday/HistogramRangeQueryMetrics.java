@@ -0,0 +1,209 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * metrics kept in lock free histograms of id query latency, result size and range width, of batch and aggregate query latency,
+ * and of build time and size,
+ * readable through JMX once registered and loggable through SLF4J
+ * 
+ * @author eiathom
+ *
+ */
+public final class HistogramRangeQueryMetrics implements RangeQueryMetrics, RangeQueryMetricsMXBean {
+
+    /**
+     * for logging
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HistogramRangeQueryMetrics.class);
+
+    private final AtomicHistogram queryLatency = new AtomicHistogram();
+
+    private final AtomicHistogram resultSize = new AtomicHistogram();
+
+    private final AtomicHistogram rangeWidth = new AtomicHistogram();
+
+    private final AtomicHistogram batchLatency = new AtomicHistogram();
+
+    private final AtomicHistogram batchSize = new AtomicHistogram();
+
+    private final AtomicHistogram aggregateLatency = new AtomicHistogram();
+
+    private final AtomicHistogram buildTime = new AtomicHistogram();
+
+    private final AtomicHistogram buildSize = new AtomicHistogram();
+
+    @Override
+    public void recordQuery(final long latencyInNanoSeconds, final long rangeWidth, final int resultSize) {
+        queryLatency.record(latencyInNanoSeconds);
+        this.rangeWidth.record(rangeWidth);
+        if (resultSize >= 0) {
+            this.resultSize.record(resultSize);
+        }
+    }
+
+    @Override
+    public void recordBatch(final long latencyInNanoSeconds, final int numberOfRanges) {
+        batchLatency.record(latencyInNanoSeconds);
+        batchSize.record(numberOfRanges);
+    }
+
+    @Override
+    public void recordAggregate(final long latencyInNanoSeconds) {
+        aggregateLatency.record(latencyInNanoSeconds);
+    }
+
+    @Override
+    public void recordBuild(final long buildTimeInNanoSeconds, final int size) {
+        buildTime.record(buildTimeInNanoSeconds);
+        buildSize.record(size);
+    }
+
+    /**
+     * registers these metrics with the platform MBean server
+     * 
+     * @param name distinguishes these metrics from those of other containers
+     * @return the name registered under
+     * @throws JMException if the name is taken or invalid
+     */
+    public ObjectName register(final String name) throws JMException {
+        final ObjectName objectName = new ObjectName("com.workday:type=RangeQueryMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * logs a summary of these metrics at info level
+     */
+    public void logSummary() {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("queries {}, latency p50 {} ns p99 {} ns, result size mean {} p99 {}, range width mean {}, "
+                    + "batches {}, batch latency p99 {} ns, aggregates {}, aggregate latency p99 {} ns, builds {}, build time mean {} ns, build size mean {}",
+                    getQueryCount(), getQueryLatencyP50(), getQueryLatencyP99(), getResultSizeMean(), getResultSizeP99(), getRangeWidthMean(),
+                    getBatchCount(), getBatchLatencyP99(), getAggregateCount(), getAggregateLatencyP99(), getBuildCount(), getBuildTimeMean(),
+                    getBuildSizeMean());
+        }
+    }
+
+    @Override
+    public long getQueryCount() {
+        return queryLatency.getCount();
+    }
+
+    @Override
+    public double getQueryLatencyMean() {
+        return queryLatency.getMean();
+    }
+
+    @Override
+    public long getQueryLatencyP50() {
+        return queryLatency.getQuantileUpperBound(0.5);
+    }
+
+    @Override
+    public long getQueryLatencyP99() {
+        return queryLatency.getQuantileUpperBound(0.99);
+    }
+
+    @Override
+    public double getResultSizeMean() {
+        return resultSize.getMean();
+    }
+
+    @Override
+    public long getResultSizeP99() {
+        return resultSize.getQuantileUpperBound(0.99);
+    }
+
+    @Override
+    public double getRangeWidthMean() {
+        return rangeWidth.getMean();
+    }
+
+    @Override
+    public long getRangeWidthP99() {
+        return rangeWidth.getQuantileUpperBound(0.99);
+    }
+
+    @Override
+    public long getBatchCount() {
+        return batchLatency.getCount();
+    }
+
+    @Override
+    public double getBatchLatencyMean() {
+        return batchLatency.getMean();
+    }
+
+    @Override
+    public long getBatchLatencyP99() {
+        return batchLatency.getQuantileUpperBound(0.99);
+    }
+
+    @Override
+    public double getBatchSizeMean() {
+        return batchSize.getMean();
+    }
+
+    @Override
+    public long getAggregateCount() {
+        return aggregateLatency.getCount();
+    }
+
+    @Override
+    public double getAggregateLatencyMean() {
+        return aggregateLatency.getMean();
+    }
+
+    @Override
+    public long getAggregateLatencyP99() {
+        return aggregateLatency.getQuantileUpperBound(0.99);
+    }
+
+    @Override
+    public long getBuildCount() {
+        return buildTime.getCount();
+    }
+
+    @Override
+    public double getBuildTimeMean() {
+        return buildTime.getMean();
+    }
+
+    @Override
+    public long getBuildTimeMax() {
+        return buildTime.getQuantileUpperBound(1);
+    }
+
+    @Override
+    public double getBuildSizeMean() {
+        return buildSize.getMean();
+    }
+
+    @Override
+    public long getBuildSizeMax() {
+        return buildSize.getQuantileUpperBound(1);
+    }
+
+}
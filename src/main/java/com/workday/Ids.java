@@ -33,4 +33,12 @@ public interface Ids {
      * */
     short nextId();
 
+    /**
+     * bulk form of {@link #nextId()}, the ids continue from wherever {@link #nextId()} left off and stay in sorted order
+     * 
+     * @param buffer filled from index 0 with the next ids in sequence
+     * @return the number of ids placed in buffer, 0 if at end of data
+     */
+    int nextIds(final short[] buffer);
+
 }
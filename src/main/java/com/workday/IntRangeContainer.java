@@ -0,0 +1,57 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * a specialized container of records optimized for efficient range queries on an attribute of the data,
+ * for data sets beyond the 32k limit of {@link RangeContainer}
+ * 
+ * @author eiathom
+ * 
+ */
+public interface IntRangeContainer {
+
+    /**
+     * returned by {@link #minInRange(long, long, boolean, boolean)} and {@link #maxInRange(long, long, boolean, boolean)} when no value is in range
+     */
+    static final long NO_VALUE = RangeContainer.NO_VALUE;
+
+    /**
+     * @return the Ids of all instances found in the container that have data value between fromValue and toValue with optional inclusivity
+     */
+    IntIds findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
+    /**
+     * @return the number of instances {@link #findIdsInRange(long, long, boolean, boolean)} would return for the same range
+     */
+    long countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
+    /**
+     * @return the sum of the data values in range, 0 when no value is in range
+     */
+    long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
+    /**
+     * @return the lowest data value in range, or {@link #NO_VALUE} when no value is in range
+     */
+    long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
+    /**
+     * @return the highest data value in range, or {@link #NO_VALUE} when no value is in range
+     */
+    long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
+}
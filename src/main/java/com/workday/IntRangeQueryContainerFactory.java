@@ -0,0 +1,31 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * @author eiathom
+ *
+ */
+public interface IntRangeQueryContainerFactory {
+
+    /**
+     * builds an immutable container optimized for range queries, with no 32k limit on the number of items.
+     * The position in the 'data' array represents the 'id' for that instance in question.
+     * E.g, data[5]=2000 means that employee #6 has net pay of 2000.
+     */
+    IntRangeContainer createContainer(final long[] data);
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**<p>
+ * search guided by the distribution of the sorted values</br>
+ * the span of values is cut into buckets of equal width, one per {@link #VALUES_PER_BUCKET} values,
+ * and the first position of every bucket is recorded, a value is mapped to its bucket by arithmetic
+ * and only the positions of that bucket are binary searched</br>
+ * close to uniform data, such as salaries, leaves a few dozen positions per bucket,
+ * skewed data still searches correctly, over wider buckets
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+final class InterpolationPositionSearch implements PositionSearch {
+
+    private static final int VALUES_PER_BUCKET = 32;
+
+    private final long[] sortedValues;
+
+    private final long minimum;
+
+    private final long maximum;
+
+    private final long bucketWidth;
+
+    /**
+     * bucketStarts[bucket] is the first position holding a value in bucket or above, bucketStarts[number of buckets] is n
+     */
+    private final int[] bucketStarts;
+
+    InterpolationPositionSearch(final long[] sortedValues) {
+        this.sortedValues = sortedValues;
+        final int size = sortedValues.length;
+        this.minimum = size == 0 ? 0 : sortedValues[0];
+        this.maximum = size == 0 ? 0 : sortedValues[size - 1];
+        final long span = maximum - minimum;
+        // a span overflowing a long falls back to a single bucket, a plain binary search
+        final int numberOfBuckets = span < 0 ? 1 : (int) Math.max(1, Math.min(size / VALUES_PER_BUCKET, span));
+        this.bucketWidth = span < 0 ? 0 : span / numberOfBuckets + 1;
+        this.bucketStarts = new int[numberOfBuckets + 1];
+        int position = 0;
+        for (int bucket = 1; bucket <= numberOfBuckets; bucket++) {
+            while (position < size && getBucket(sortedValues[position]) < bucket) {
+                position++;
+            }
+            bucketStarts[bucket] = position;
+        }
+        bucketStarts[numberOfBuckets] = size;
+    }
+
+    @Override
+    public int firstPositionAbove(final long value) {
+        if (sortedValues.length == 0 || value < minimum) {
+            return 0;
+        }
+        if (value >= maximum) {
+            return sortedValues.length;
+        }
+        final int bucket = getBucket(value);
+        return ContainerHelper.firstPositionAbove(sortedValues, bucketStarts[bucket], bucketStarts[bucket + 1], value);
+    }
+
+    @Override
+    public int firstPositionAtOrAbove(final long value) {
+        if (sortedValues.length == 0 || value <= minimum) {
+            return 0;
+        }
+        if (value > maximum) {
+            return sortedValues.length;
+        }
+        final int bucket = getBucket(value);
+        return ContainerHelper.firstPositionAtOrAbove(sortedValues, bucketStarts[bucket], bucketStarts[bucket + 1], value);
+    }
+
+    /**
+     * @param value between minimum and maximum
+     */
+    private int getBucket(final long value) {
+        return bucketWidth == 0 ? 0 : (int) ((value - minimum) / bucketWidth);
+    }
+
+}
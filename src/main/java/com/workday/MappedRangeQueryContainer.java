@@ -0,0 +1,263 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+import static com.workday.ContainerHelper.newIdBitSet;
+import static com.workday.ContainerHelper.setId;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**<p>
+ * container holding worker net salary data in a file, queried in place through a memory mapping</br>
+ * a container is written once with {@link #write(long[], Path)} and reopened with {@link #open(Path)},
+ * reopening maps the file and reads nothing up front, so startup costs no rebuild and no heap
+ * </p>
+ * <p>
+ * file layout, little endian:</br>
+ * int magic, int version, int size n, int reserved</br>
+ * long[n] values, sorted from lower to higher</br>
+ * long[n + 1] prefix sums, entry n is the sum of every value before sorted position n</br>
+ * short[n] ids, the id holding the value at the same sorted position, equal values in id order
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class MappedRangeQueryContainer implements RangeContainer {
+
+    /**
+     * "NRQC"
+     */
+    private static final int MAGIC = 0x4E525143;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    /**
+     * results matching more than 1 in this many ids are collected in a bit set rather than sorted
+     */
+    private static final int BIT_SET_SELECTIVITY = 64;
+
+    private final int size;
+
+    private final LongBuffer values;
+
+    private final LongBuffer prefixSums;
+
+    private final ShortBuffer ids;
+
+    private MappedRangeQueryContainer(final MappedByteBuffer buffer, final int size) {
+        this.size = size;
+        this.values = slice(buffer, HEADER_BYTES, 8 * size).asLongBuffer();
+        this.prefixSums = slice(buffer, HEADER_BYTES + 8 * size, 8 * (size + 1)).asLongBuffer();
+        this.ids = slice(buffer, HEADER_BYTES + 16 * size + 8, 2 * size).asShortBuffer();
+    }
+
+    /**
+     * writes data, in the format this container reads, to file
+     * 
+     * @param data the data to be contained, indexed by id
+     * @param file created, or replaced
+     * @throws IOException
+     */
+    public static void write(final long[] data, final Path file) throws IOException {
+        final int size = data.length;
+        final long[] sortedValues = new long[size];
+        final short[] sortedIds = ContainerHelper.sortByValue(data, sortedValues);
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 18 * size + 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(0);
+        for (final long value : sortedValues) {
+            buffer.putLong(value);
+        }
+        long sum = 0;
+        buffer.putLong(sum);
+        for (final long value : sortedValues) {
+            sum += value;
+            buffer.putLong(sum);
+        }
+        for (final short id : sortedIds) {
+            buffer.putShort(id);
+        }
+        buffer.flip();
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * maps a file written by {@link #write(long[], Path)}, the mapping stays valid until the container is garbage collected
+     * 
+     * @param file
+     * @return a container answering queries straight from the file
+     * @throws IOException if the file cannot be read or is not a container file
+     */
+    public static MappedRangeQueryContainer open(final Path file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("not a range container file: " + file);
+            }
+            final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            final int size = buffer.getInt(8);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || size < 0 || fileSize != HEADER_BYTES + 18L * size + 8) {
+                throw new IOException("not a range container file: " + file);
+            }
+            return new MappedRangeQueryContainer(buffer, size);
+        }
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        if (startPosition >= endPosition) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        if ((endPosition - startPosition) * BIT_SET_SELECTIVITY > size) {
+            final long[] bitSet = newIdBitSet(size);
+            for (int position = startPosition; position < endPosition; position++) {
+                setId(bitSet, ids.get(position));
+            }
+            return new BitSetWorkerIds(bitSet);
+        }
+        final short[] ids = new short[endPosition - startPosition];
+        for (int position = startPosition; position < endPosition; position++) {
+            ids[position - startPosition] = this.ids.get(position);
+        }
+        Arrays.sort(ids);
+        return new WorkerIds(ids);
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        return Math.max(0, getEndPosition(fromValue, toValue, toInclusive) - getStartPosition(fromValue, toValue, fromInclusive));
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        return startPosition >= endPosition ? 0 : prefixSums.get(endPosition) - prefixSums.get(startPosition);
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        return startPosition >= getEndPosition(fromValue, toValue, toInclusive) ? NO_VALUE : values.get(startPosition);
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        return getStartPosition(fromValue, toValue, fromInclusive) >= endPosition ? NO_VALUE : values.get(endPosition - 1);
+    }
+
+    /**
+     * @return the first sorted position in range
+     */
+    private int getStartPosition(final long fromValue, final long toValue, final boolean fromInclusive) {
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (values.get(middle) <= lowerRange) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the sorted position after the last in range
+     */
+    private int getEndPosition(final long fromValue, final long toValue, final boolean toInclusive) {
+        final long upperRange = getCorrectUpperRange(fromValue, toValue, toInclusive);
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (values.get(middle) < upperRange) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return a little endian view of length bytes of buffer from offset
+     */
+    private static ByteBuffer slice(final MappedByteBuffer buffer, final int offset, final int length) {
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.limit(offset + length);
+        return duplicate.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**<p>
+ * ascending ids merged from the sorted ids of many children, each child's ids shifted by its offset</br>
+ * children join the merge, a heap ordered on the next id of each child, as their results complete,
+ * an id is returned as soon as it is below the offset of every child still running, as no running child can return a lower one,
+ * so a slow child holds up only the ids above its own offset</br>
+ * a child is waited for only when the next id cannot be known without it
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public class MergingWorkerIds implements IntIds {
+
+    private final CompletableFuture<Ids>[] pending;
+
+    private final int[] offsets;
+
+    private final Ids[] childIds;
+
+    /**
+     * children ordered by offset, the ones before firstPending have all joined the merge
+     */
+    private final Integer[] childrenByOffset;
+
+    private int firstPending;
+
+    /**
+     * children in the merge, a binary min heap on heads
+     */
+    private final int[] heap;
+
+    private int heapSize;
+
+    /**
+     * heads[child] is the next id of child, offset included
+     */
+    private final int[] heads;
+
+    /**
+     * @param pending the ids of each child, as they complete
+     * @param offsets the first id of each child
+     */
+    public MergingWorkerIds(final CompletableFuture<Ids>[] pending, final int[] offsets) {
+        this.pending = pending;
+        this.offsets = offsets;
+        this.childIds = new Ids[pending.length];
+        this.heap = new int[pending.length];
+        this.heads = new int[pending.length];
+        this.childrenByOffset = new Integer[pending.length];
+        for (int child = 0; child < pending.length; child++) {
+            childrenByOffset[child] = child;
+        }
+        Arrays.sort(childrenByOffset, (first, second) -> Integer.compare(offsets[first], offsets[second]));
+    }
+
+    @Override
+    public int nextId() {
+        while (true) {
+            skipJoined();
+            if (heapSize > 0 && (firstPending == pending.length || heads[heap[0]] < offsets[childrenByOffset[firstPending]])) {
+                return pop();
+            }
+            if (firstPending == pending.length) {
+                return END_OF_IDS;
+            }
+            if (!joinCompleted()) {
+                // the next id may come from the pending child of lowest offset, nothing can be returned without it
+                join(childrenByOffset[firstPending]);
+            }
+        }
+    }
+
+    @Override
+    public int nextIds(final int[] buffer) {
+        int count = 0;
+        int id;
+        while (count < buffer.length && (id = nextId()) != END_OF_IDS) {
+            buffer[count++] = id;
+        }
+        return count;
+    }
+
+    /**
+     * adds every child whose ids are complete to the merge
+     * 
+     * @return whether any child was added
+     */
+    private boolean joinCompleted() {
+        boolean joined = false;
+        for (int index = firstPending; index < pending.length; index++) {
+            final int child = childrenByOffset[index];
+            if (childIds[child] == null && pending[child].isDone()) {
+                join(child);
+                joined = true;
+            }
+        }
+        return joined;
+    }
+
+    /**
+     * adds child to the merge, waiting for its ids if need be
+     */
+    private void join(final int child) {
+        final Ids ids = pending[child].join();
+        childIds[child] = ids;
+        final short id = ids.nextId();
+        if (id != Ids.END_OF_IDS) {
+            heads[child] = offsets[child] + id;
+            heap[heapSize] = child;
+            siftUp(heapSize++);
+        }
+    }
+
+    private void skipJoined() {
+        while (firstPending < pending.length && childIds[childrenByOffset[firstPending]] != null) {
+            firstPending++;
+        }
+    }
+
+    /**
+     * @return the lowest head, replaced by the next id of its child
+     */
+    private int pop() {
+        final int child = heap[0];
+        final int id = heads[child];
+        final short next = childIds[child].nextId();
+        if (next == Ids.END_OF_IDS) {
+            heap[0] = heap[--heapSize];
+        } else {
+            heads[child] = offsets[child] + next;
+        }
+        siftDown(0);
+        return id;
+    }
+
+    private void siftUp(int index) {
+        final int child = heap[index];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (heads[heap[parent]] <= heads[child]) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = child;
+    }
+
+    private void siftDown(int index) {
+        if (heapSize == 0) {
+            return;
+        }
+        final int child = heap[index];
+        while (true) {
+            int lowest = 2 * index + 1;
+            if (lowest >= heapSize) {
+                break;
+            }
+            if (lowest + 1 < heapSize && heads[heap[lowest + 1]] < heads[heap[lowest]]) {
+                lowest++;
+            }
+            if (heads[child] <= heads[heap[lowest]]) {
+                break;
+            }
+            heap[index] = heap[lowest];
+            index = lowest;
+        }
+        heap[index] = child;
+    }
+
+}
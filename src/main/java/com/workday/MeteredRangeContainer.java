@@ -0,0 +1,110 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+
+/**<p>
+ * decorator reporting the latency, range width and result size of every id query of a container to {@link RangeQueryMetrics}</br>
+ * result sizes of {@link #findIdsInRange(long, long, boolean, boolean)} are reported when the result knows its size
+ * at no cost, bit set and lazily scanned results report none</br>
+ * batches and aggregate queries report their latency apart, so they do not skew the id query latencies</br>
+ * batches are handed to the container whole, keeping any shared work it does across ranges
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class MeteredRangeContainer implements RangeContainer {
+
+    private final RangeContainer container;
+
+    private final RangeQueryMetrics metrics;
+
+    /**
+     * @param container the container measured
+     * @param metrics receives the measurements
+     */
+    public MeteredRangeContainer(final RangeContainer container, final RangeQueryMetrics metrics) {
+        this.container = container;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final long startTimeInNanoSeconds = System.nanoTime();
+        final Ids ids = container.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive);
+        final long latencyInNanoSeconds = System.nanoTime() - startTimeInNanoSeconds;
+        metrics.recordQuery(latencyInNanoSeconds, getRangeWidth(fromValue, toValue, fromInclusive, toInclusive),
+                ids instanceof SizedIds ? ((SizedIds) ids).remaining() : -1);
+        return ids;
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        final long startTimeInNanoSeconds = System.nanoTime();
+        final Ids[] ids = container.findIdsInRanges(fromValues, toValues, fromInclusive, toInclusive);
+        metrics.recordBatch(System.nanoTime() - startTimeInNanoSeconds, fromValues.length);
+        return ids;
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final long startTimeInNanoSeconds = System.nanoTime();
+        final int count = container.countInRange(fromValue, toValue, fromInclusive, toInclusive);
+        metrics.recordAggregate(System.nanoTime() - startTimeInNanoSeconds);
+        return count;
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final long startTimeInNanoSeconds = System.nanoTime();
+        final long sum = container.sumInRange(fromValue, toValue, fromInclusive, toInclusive);
+        metrics.recordAggregate(System.nanoTime() - startTimeInNanoSeconds);
+        return sum;
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final long startTimeInNanoSeconds = System.nanoTime();
+        final long min = container.minInRange(fromValue, toValue, fromInclusive, toInclusive);
+        metrics.recordAggregate(System.nanoTime() - startTimeInNanoSeconds);
+        return min;
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final long startTimeInNanoSeconds = System.nanoTime();
+        final long max = container.maxInRange(fromValue, toValue, fromInclusive, toInclusive);
+        metrics.recordAggregate(System.nanoTime() - startTimeInNanoSeconds);
+        return max;
+    }
+
+    /**
+     * @return the number of values the range covers, Long.MAX_VALUE if more
+     */
+    private static long getRangeWidth(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final long width = getCorrectUpperRange(fromValue, toValue, toInclusive) - getCorrectLowerRange(fromValue, toValue, fromInclusive) - 1;
+        return width < 0 ? Long.MAX_VALUE : width;
+    }
+
+}
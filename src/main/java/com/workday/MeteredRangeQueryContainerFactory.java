@@ -0,0 +1,51 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * builds containers of another factory, timing each build and measuring every query through a {@link MeteredRangeContainer},
+ * with {@link RangeQueryMetrics#DISABLED} the containers are returned undecorated and nothing is measured
+ * 
+ * @author eiathom
+ *
+ */
+public class MeteredRangeQueryContainerFactory implements RangeQueryContainerFactory {
+
+    private final RangeQueryContainerFactory factory;
+
+    private final RangeQueryMetrics metrics;
+
+    /**
+     * @param factory builds the measured containers
+     * @param metrics receives the measurements
+     */
+    public MeteredRangeQueryContainerFactory(final RangeQueryContainerFactory factory, final RangeQueryMetrics metrics) {
+        this.factory = factory;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public RangeContainer createContainer(final long[] data) {
+        if (metrics == RangeQueryMetrics.DISABLED) {
+            return factory.createContainer(data);
+        }
+        final long startTimeInNanoSeconds = System.nanoTime();
+        final RangeContainer container = factory.createContainer(data);
+        metrics.recordBuild(System.nanoTime() - startTimeInNanoSeconds, data.length);
+        return new MeteredRangeContainer(container, metrics);
+    }
+
+}
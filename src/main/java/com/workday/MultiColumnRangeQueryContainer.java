@@ -0,0 +1,227 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+import static com.workday.ContainerHelper.newIdBitSet;
+import static com.workday.ContainerHelper.setId;
+
+import java.util.Arrays;
+
+/**<p>
+ * container holding several attributes of every worker, such as gross pay, net pay, tax and hours,
+ * each column indexed in its own {@link SortedArrayRangeQueryContainer}</br>
+ * conjunctions start from the predicate matching fewest ids, counted from the boundary positions of each column,
+ * and keep the candidates whose values in the other columns are in range, checked most selective first</br>
+ * disjunctions merge the ids of every predicate</br>
+ * results are returned in ascending id order
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class MultiColumnRangeQueryContainer {
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    /**
+     * candidate sets holding more than 1 in this many ids are kept in a bit set rather than sorted
+     */
+    private static final int BIT_SET_SELECTIVITY = 64;
+
+    private final SortedArrayRangeQueryContainer[] columns;
+
+    private final int numberOfIds;
+
+    /**
+     * @param columns the data of each column, indexed by id, every column of the same length
+     * @throws IllegalArgumentException when there are no columns or they differ in length
+     */
+    public MultiColumnRangeQueryContainer(final long[]... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("no columns");
+        }
+        this.numberOfIds = columns[0].length;
+        this.columns = new SortedArrayRangeQueryContainer[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            if (columns[column].length != numberOfIds) {
+                throw new IllegalArgumentException("columns differ in length");
+            }
+            this.columns[column] = new SortedArrayRangeQueryContainer(columns[column]);
+        }
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int getNumberOfColumns() {
+        return columns.length;
+    }
+
+    /**
+     * @param column
+     * @return the container of a single column
+     */
+    public RangeContainer getColumn(final int column) {
+        return columns[column];
+    }
+
+    /**
+     * @param predicates
+     * @return the ids matching every predicate
+     * @throws IllegalArgumentException when no predicate is given or a predicate names no column
+     */
+    public Ids findIdsMatchingAll(final RangePredicate... predicates) {
+        final int[] startPositions = new int[predicates.length];
+        final int[] endPositions = new int[predicates.length];
+        final Integer[] order = getPositions(predicates, startPositions, endPositions);
+        Arrays.sort(order, (first, second) -> Integer.compare(endPositions[first] - startPositions[first], endPositions[second] - startPositions[second]));
+        final int mostSelective = order[0];
+        final int numberOfCandidates = endPositions[mostSelective] - startPositions[mostSelective];
+        if (numberOfCandidates == 0) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final SortedArrayRangeQueryContainer startColumn = columns[predicates[mostSelective].getColumn()];
+        final short[] candidates = new short[numberOfCandidates];
+        int numberOfMatches = 0;
+        candidates:
+        for (int position = startPositions[mostSelective]; position < endPositions[mostSelective]; position++) {
+            final short id = startColumn.getIdAt(position);
+            for (int predicate = 1; predicate < order.length; predicate++) {
+                if (!isInRange(predicates[order[predicate]], startPositions[order[predicate]], endPositions[order[predicate]], id)) {
+                    continue candidates;
+                }
+            }
+            candidates[numberOfMatches++] = id;
+        }
+        return getIds(candidates, numberOfMatches);
+    }
+
+    /**
+     * @param predicates
+     * @return the ids matching any predicate
+     * @throws IllegalArgumentException when no predicate is given or a predicate names no column
+     */
+    public Ids findIdsMatchingAny(final RangePredicate... predicates) {
+        final int[] startPositions = new int[predicates.length];
+        final int[] endPositions = new int[predicates.length];
+        getPositions(predicates, startPositions, endPositions);
+        long numberOfCandidates = 0;
+        for (int predicate = 0; predicate < predicates.length; predicate++) {
+            numberOfCandidates += endPositions[predicate] - startPositions[predicate];
+        }
+        if (numberOfCandidates == 0) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        if (numberOfCandidates * BIT_SET_SELECTIVITY > numberOfIds) {
+            final long[] bitSet = newIdBitSet(numberOfIds);
+            for (int predicate = 0; predicate < predicates.length; predicate++) {
+                final SortedArrayRangeQueryContainer column = columns[predicates[predicate].getColumn()];
+                for (int position = startPositions[predicate]; position < endPositions[predicate]; position++) {
+                    setId(bitSet, column.getIdAt(position));
+                }
+            }
+            return new BitSetWorkerIds(bitSet);
+        }
+        final short[] candidates = new short[(int) numberOfCandidates];
+        int numberOfMatches = 0;
+        for (int predicate = 0; predicate < predicates.length; predicate++) {
+            final SortedArrayRangeQueryContainer column = columns[predicates[predicate].getColumn()];
+            for (int position = startPositions[predicate]; position < endPositions[predicate]; position++) {
+                candidates[numberOfMatches++] = column.getIdAt(position);
+            }
+        }
+        Arrays.sort(candidates);
+        int distinct = 0;
+        for (int index = 0; index < candidates.length; index++) {
+            if (distinct == 0 || candidates[distinct - 1] != candidates[index]) {
+                candidates[distinct++] = candidates[index];
+            }
+        }
+        return new WorkerIds(Arrays.copyOf(candidates, distinct));
+    }
+
+    /**
+     * fills the sorted positions in range of every predicate in its column, a predicate matching nothing gets an empty range
+     * 
+     * @return the index of every predicate
+     */
+    private Integer[] getPositions(final RangePredicate[] predicates, final int[] startPositions, final int[] endPositions) {
+        if (predicates.length == 0) {
+            throw new IllegalArgumentException("no predicates");
+        }
+        final Integer[] order = new Integer[predicates.length];
+        for (int index = 0; index < predicates.length; index++) {
+            final RangePredicate predicate = predicates[index];
+            if (predicate.getColumn() < 0 || predicate.getColumn() >= columns.length) {
+                throw new IllegalArgumentException("no column " + predicate.getColumn());
+            }
+            order[index] = index;
+            if (isInValidInput(predicate.getFromValue(), predicate.getToValue())
+                    || isUnProcessibleQuery(predicate.getFromValue(), predicate.getToValue(), predicate.isFromInclusive(), predicate.isToInclusive())) {
+                continue;
+            }
+            final SortedArrayRangeQueryContainer column = columns[predicate.getColumn()];
+            startPositions[index] = column.getPositionAbove(getCorrectLowerRange(predicate.getFromValue(), predicate.getToValue(), predicate.isFromInclusive()));
+            endPositions[index] = Math.max(startPositions[index],
+                    column.getPositionBelow(getCorrectUpperRange(predicate.getFromValue(), predicate.getToValue(), predicate.isToInclusive())));
+        }
+        return order;
+    }
+
+    /**
+     * @return whether the value of id in the column of predicate lies between the sorted positions found for predicate
+     */
+    private boolean isInRange(final RangePredicate predicate, final int startPosition, final int endPosition, final short id) {
+        if (startPosition == endPosition) {
+            return false;
+        }
+        final SortedArrayRangeQueryContainer column = columns[predicate.getColumn()];
+        final long value = column.getValueOf(id);
+        return value >= column.getValueAt(startPosition) && value <= column.getValueAt(endPosition - 1);
+    }
+
+    /**
+     * @return the first numberOfMatches candidates as Ids in ascending order
+     */
+    private Ids getIds(final short[] candidates, final int numberOfMatches) {
+        if (numberOfMatches == 0) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        if (numberOfMatches * BIT_SET_SELECTIVITY > numberOfIds) {
+            final long[] bitSet = newIdBitSet(numberOfIds);
+            for (int index = 0; index < numberOfMatches; index++) {
+                setId(bitSet, candidates[index]);
+            }
+            return new BitSetWorkerIds(bitSet);
+        }
+        final short[] ids = Arrays.copyOf(candidates, numberOfMatches);
+        Arrays.sort(ids);
+        return new WorkerIds(ids);
+    }
+
+}
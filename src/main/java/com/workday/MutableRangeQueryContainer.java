@@ -0,0 +1,288 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**<p>
+ * container holding worker net salary data that can change after it is built</br>
+ * writes go to a small write buffer, sorted by id, that overrides the sorted main structure;
+ * once the buffer fills it is folded into a new main structure in the background</br>
+ * main structure and buffer are published together as one immutable snapshot, so every query reads a consistent
+ * view without locking and a merge in progress never stalls readers
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class MutableRangeQueryContainer implements RangeContainer {
+
+    /**
+     * value held by an id that is removed, or was never put; a range can never match it
+     */
+    private static final long REMOVED = OverlaidRangeContainer.REMOVED;
+
+    /**
+     * number of buffered writes that triggers a background merge
+     */
+    private static final int DEFAULT_BUFFER_CAPACITY = 1024;
+
+    /**
+     * merges containers built without an executor, one at a time
+     */
+    private static final ExecutorService DEFAULT_MERGE_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "range-container-merge");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * serializes writers
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * serializes merges, so an older merge can never replace the main structure of a newer one
+     */
+    private final Object mergeLock = new Object();
+
+    private final int bufferCapacity;
+
+    private final ExecutorService mergeExecutor;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * guarded by writeLock
+     */
+    private boolean mergeScheduled;
+
+    /**
+     * @param data the data to be contained in this container
+     */
+    public MutableRangeQueryContainer(final long[] data) {
+        this(data, DEFAULT_BUFFER_CAPACITY, DEFAULT_MERGE_EXECUTOR);
+    }
+
+    /**
+     * @param data the data to be contained in this container
+     * @param bufferCapacity number of buffered writes that triggers a background merge
+     * @param mergeExecutor runs background merges
+     */
+    public MutableRangeQueryContainer(final long[] data, final int bufferCapacity, final ExecutorService mergeExecutor) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("buffer capacity must be positive");
+        }
+        this.bufferCapacity = bufferCapacity;
+        this.mergeExecutor = mergeExecutor;
+        this.snapshot = new Snapshot(new SortedArrayRangeQueryContainer(data), DEFAULT_IDS_ARRAY, new long[0]);
+    }
+
+    /**
+     * inserts id, or updates the value it holds
+     * 
+     * @param id
+     * @param value
+     */
+    public void put(final short id, final long value) {
+        checkId(id);
+        write(id, value);
+    }
+
+    /**
+     * @param id no longer held by this container
+     */
+    public void remove(final short id) {
+        checkId(id);
+        write(id, REMOVED);
+    }
+
+    /**
+     * folds the write buffer into the main structure now, rather than waiting for it to fill
+     */
+    public void merge() {
+        synchronized (mergeLock) {
+            final Snapshot merging = snapshot;
+            if (merging.bufferIds.length == 0) {
+                return;
+            }
+            final SortedArrayRangeQueryContainer main = merging.getMergedMain();
+            synchronized (writeLock) {
+                snapshot = snapshot.withMain(main, merging);
+                mergeScheduled = false;
+                scheduleMergeIfFull();
+            }
+        }
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return snapshot.view.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return snapshot.view.countInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return snapshot.view.sumInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return snapshot.view.minInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return snapshot.view.maxInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    private void write(final short id, final long value) {
+        synchronized (writeLock) {
+            snapshot = snapshot.withBufferEntry(id, value);
+            scheduleMergeIfFull();
+        }
+    }
+
+    /**
+     * must hold writeLock
+     */
+    private void scheduleMergeIfFull() {
+        if (!mergeScheduled && snapshot.bufferIds.length >= bufferCapacity) {
+            mergeScheduled = true;
+            mergeExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    merge();
+                }
+            });
+        }
+    }
+
+    private static void checkId(final short id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("id must not be negative: " + id);
+        }
+    }
+
+    /**
+     * the main structure and the write buffer overriding it, never changed once published
+     */
+    private static final class Snapshot {
+
+        private final SortedArrayRangeQueryContainer main;
+
+        /**
+         * buffered ids, ascending
+         */
+        private final short[] bufferIds;
+
+        /**
+         * bufferValues[index] is the value now held by bufferIds[index]
+         */
+        private final long[] bufferValues;
+
+        /**
+         * the main structure with the buffer applied, answering queries
+         */
+        private final OverlaidRangeContainer view;
+
+        Snapshot(final SortedArrayRangeQueryContainer main, final short[] bufferIds, final long[] bufferValues) {
+            this.main = main;
+            this.bufferIds = bufferIds;
+            this.bufferValues = bufferValues;
+            this.view = new OverlaidRangeContainer(main, bufferIds, bufferValues);
+        }
+
+        /**
+         * @return a copy of this snapshot with id holding value in the buffer
+         */
+        Snapshot withBufferEntry(final short id, final long value) {
+            final int index = Arrays.binarySearch(bufferIds, id);
+            if (index >= 0) {
+                final long[] values = bufferValues.clone();
+                values[index] = value;
+                return new Snapshot(main, bufferIds, values);
+            }
+            final int insertion = -(index + 1);
+            final short[] ids = new short[bufferIds.length + 1];
+            final long[] values = new long[bufferValues.length + 1];
+            System.arraycopy(bufferIds, 0, ids, 0, insertion);
+            System.arraycopy(bufferValues, 0, values, 0, insertion);
+            ids[insertion] = id;
+            values[insertion] = value;
+            System.arraycopy(bufferIds, insertion, ids, insertion + 1, bufferIds.length - insertion);
+            System.arraycopy(bufferValues, insertion, values, insertion + 1, bufferValues.length - insertion);
+            return new Snapshot(main, ids, values);
+        }
+
+        /**
+         * @return a main structure holding this main structure with the buffer applied
+         */
+        SortedArrayRangeQueryContainer getMergedMain() {
+            final int numberOfIds = Math.max(main.size(), bufferIds.length == 0 ? 0 : bufferIds[bufferIds.length - 1] + 1);
+            final long[] data = new long[numberOfIds];
+            for (int id = 0; id < main.size(); id++) {
+                data[id] = main.getValueOf((short) id);
+            }
+            Arrays.fill(data, main.size(), numberOfIds, REMOVED);
+            for (int index = 0; index < bufferIds.length; index++) {
+                data[bufferIds[index]] = bufferValues[index];
+            }
+            return new SortedArrayRangeQueryContainer(data);
+        }
+
+        /**
+         * @param mergedMain main structure built from merged
+         * @param merged the snapshot mergedMain was built from
+         * @return a copy of this snapshot on mergedMain, keeping only writes made since merged
+         */
+        Snapshot withMain(final SortedArrayRangeQueryContainer mergedMain, final Snapshot merged) {
+            final short[] ids = new short[bufferIds.length];
+            final long[] values = new long[bufferValues.length];
+            int size = 0;
+            for (int index = 0; index < bufferIds.length; index++) {
+                final int mergedIndex = Arrays.binarySearch(merged.bufferIds, bufferIds[index]);
+                if (mergedIndex < 0 || merged.bufferValues[mergedIndex] != bufferValues[index]) {
+                    ids[size] = bufferIds[index];
+                    values[size++] = bufferValues[index];
+                }
+            }
+            return new Snapshot(mergedMain, Arrays.copyOf(ids, size), Arrays.copyOf(values, size));
+        }
+
+    }
+
+}
@@ -15,10 +15,14 @@
  */
 package com.workday;
 
-import static com.workday.ContainerHelper.getAsSortedArray;
-import static com.workday.ContainerHelper.getComparator;
-import static com.workday.ContainerHelper.getCorrectRanges;
-import static com.workday.ContainerHelper.populateContainerData;
+import static com.workday.ContainerHelper.firstPositionAbove;
+import static com.workday.ContainerHelper.firstPositionAtOrAbove;
+import static com.workday.ContainerHelper.getAsIdBitSet;
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+import static com.workday.ContainerHelper.sortByValue;
 
 import java.util.SortedMap;
 import java.util.concurrent.ConcurrentSkipListMap;
@@ -29,12 +33,7 @@ import java.util.concurrent.ConcurrentSkipListMap;
  * @author eiathom
  *
  */
-public final class NetRangeQueryContainer implements RangeContainer {
-
-    /**
-     * for logging
-     */
-    private static final StringBuilder STRING_BUILDER = new StringBuilder(1);
+public final class NetRangeQueryContainer implements SketchedRangeContainer {
 
     /**
      * default array of ids to return
@@ -51,16 +50,45 @@ public final class NetRangeQueryContainer implements RangeContainer {
      * sorted map chosen to use data values as keys</br>
      * storing sorted values enables sub-listing of data within a range for querying</br>
      * the values, former keys in input data (and our primary retrieval objective), are now retrieved by lookup in a sorted range</br>
+     * built in bulk from the data sorted in primitive arrays, rather than by one insert per value
      * </p>
      */
-    private final SortedMap<Long, Short> data = new ConcurrentSkipListMap<>(getComparator());
+    private final SortedMap<Long, Short> data;
+
+    /**
+     * the container values sorted from lower to higher, the keys of data in order, for aggregates over a range
+     */
+    private final long[] sortedValues;
+
+    /**
+     * prefixSums[position] is the sum of every sorted value before position
+     */
+    private final long[] prefixSums;
+
+    /**
+     * size of the id space, ids run from 0 to numberOfIds - 1
+     */
+    private final int numberOfIds;
+
+    /**
+     * equi-depth histogram of the values, built with the container
+     */
+    private final QuantileSketch quantileSketch;
 
     /**
      * 
      * @param data the data to be contained in this container
      */
     public NetRangeQueryContainer(final long[] data) {
-        populateContainerData(data, this.data);
+        final long[] sortedValues = new long[data.length];
+        this.data = new ConcurrentSkipListMap<>(new SortedArrayMap(sortedValues, sortByValue(data, sortedValues)));
+        this.quantileSketch = QuantileSketch.fromSortedValues(sortedValues, QuantileSketch.DEFAULT_NUMBER_OF_BUCKETS);
+        this.numberOfIds = data.length;
+        this.sortedValues = sortedValues;
+        this.prefixSums = new long[sortedValues.length + 1];
+        for (int position = 0; position < sortedValues.length; position++) {
+            this.prefixSums[position + 1] = this.prefixSums[position] + sortedValues[position];
+        }
     }
 
     @Override
@@ -68,18 +96,76 @@ public final class NetRangeQueryContainer implements RangeContainer {
         if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
             return DEFAULT_IDS_OBJECT;
         }
-        final long[] ranges = getCorrectRanges(fromValue, toValue, fromInclusive, toInclusive);
-        STRING_BUILDER.delete(0, STRING_BUILDER.length());
-        System.out.println(STRING_BUILDER.append(Thread.currentThread().getName()).append(": ").append("start processing"));
-        STRING_BUILDER.delete(0, STRING_BUILDER.length());
-        final long startTimeInNanoSeconds = System.nanoTime();
-        final short[] ids = getIds(ranges[0], ranges[1], fromInclusive, toInclusive);
-        System.out.println(
-                STRING_BUILDER.append(Thread.currentThread().getName()).append(": ")
-                .append("processing took ").append((double)(System.nanoTime() - startTimeInNanoSeconds) / 1000000000.0)
-                .append(" ms to find ").append(ids.length).append(" id(s)"));
-        STRING_BUILDER.delete(0, STRING_BUILDER.length());
-        return new WorkerIds(ids);
+        return getIds(getCorrectLowerRange(fromValue, toValue, fromInclusive), getCorrectUpperRange(fromValue, toValue, toInclusive), fromInclusive, toInclusive);
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public QuantileSketch getQuantileSketch() {
+        return quantileSketch;
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        return Math.max(0, getEndPosition(fromValue, toValue, toInclusive) - getStartPosition(fromValue, toValue, fromInclusive));
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        if (startPosition >= endPosition) {
+            return 0;
+        }
+        return prefixSums[endPosition] - prefixSums[startPosition];
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        if (startPosition >= getEndPosition(fromValue, toValue, toInclusive)) {
+            return NO_VALUE;
+        }
+        return sortedValues[startPosition];
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        if (getStartPosition(fromValue, toValue, fromInclusive) >= endPosition) {
+            return NO_VALUE;
+        }
+        return sortedValues[endPosition - 1];
+    }
+
+    /**
+     * @return the first sorted position in range
+     */
+    private int getStartPosition(final long fromValue, final long toValue, final boolean fromInclusive) {
+        return firstPositionAbove(sortedValues, getCorrectLowerRange(fromValue, toValue, fromInclusive));
+    }
+
+    /**
+     * @return the sorted position after the last in range
+     */
+    private int getEndPosition(final long fromValue, final long toValue, final boolean toInclusive) {
+        return firstPositionAtOrAbove(sortedValues, getCorrectUpperRange(fromValue, toValue, toInclusive));
     }
 
     /**
@@ -91,36 +177,12 @@ public final class NetRangeQueryContainer implements RangeContainer {
      * 
      * @return query matching ids in this container data
      */
-    private short[] getIds(final long startPosition, final long endPosition, final boolean fromInclusive, final boolean toInclusive) {
+    private Ids getIds(final long startPosition, final long endPosition, final boolean fromInclusive, final boolean toInclusive) {
         final SortedMap<Long, Short> subMapView = this.data.subMap(startPosition, endPosition);
         if (subMapView.isEmpty()) {
-            return DEFAULT_IDS_ARRAY;
+            return DEFAULT_IDS_OBJECT;
         }
-        return getAsSortedArray(subMapView.values());
-    }
-
-    /**
-     * 
-     * specific case where a range distance is 0 and exclusive
-     * 
-     * @param fromValue
-     * @param toValue
-     * @param fromInclusive
-     * @param toInclusive
-     * @return a check on whether to proceed
-     */
-    private boolean isUnProcessibleQuery(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
-        return (fromValue == toValue) && (!fromInclusive || !toInclusive);
-    }
-
-    /**
-     * @param fromValue
-     * @param toValue
-     * 
-     * @return whether input is correct to continue
-     */
-    private boolean isInValidInput(final long fromValue, final long toValue) {
-        return fromValue < 0 && toValue < 0;
+        return new BitSetWorkerIds(getAsIdBitSet(subMapView.values(), numberOfIds));
     }
 
 }
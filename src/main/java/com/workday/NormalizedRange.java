@@ -0,0 +1,65 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+
+/**
+ * a range reduced to its exclusive bounds, values v with lowerRange < v < upperRange,
+ * so requests naming the same values with different inclusivity are equal
+ * 
+ * @author eiathom
+ *
+ */
+final class NormalizedRange {
+
+    private final long lowerRange;
+
+    private final long upperRange;
+
+    private NormalizedRange(final long lowerRange, final long upperRange) {
+        this.lowerRange = lowerRange;
+        this.upperRange = upperRange;
+    }
+
+    /**
+     * @param fromValue
+     * @param toValue
+     * @param fromInclusive
+     * @param toInclusive
+     * @return the normalized range of the request
+     */
+    static NormalizedRange of(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return new NormalizedRange(getCorrectLowerRange(fromValue, toValue, fromInclusive), getCorrectUpperRange(fromValue, toValue, toInclusive));
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (!(object instanceof NormalizedRange)) {
+            return false;
+        }
+        final NormalizedRange range = (NormalizedRange) object;
+        return lowerRange == range.lowerRange && upperRange == range.upperRange;
+    }
+
+    @Override
+    public int hashCode() {
+        final long hash = lowerRange * 31 + upperRange;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+}
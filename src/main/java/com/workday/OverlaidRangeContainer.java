@@ -0,0 +1,231 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+
+import java.util.Arrays;
+
+/**<p>
+ * immutable view of a sorted main structure with a few ids overridden to hold other values</br>
+ * the main structure is shared, never copied, so views differing by a few ids cost memory per overridden id</br>
+ * used for the write buffer of {@link MutableRangeQueryContainer} and the periods of {@link TemporalRangeQueryContainer}
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+final class OverlaidRangeContainer implements RangeContainer {
+
+    /**
+     * value held by an id that is removed, or was never put; a range can never match it
+     */
+    static final long REMOVED = Long.MIN_VALUE;
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    private final SortedArrayRangeQueryContainer main;
+
+    /**
+     * overridden ids, ascending
+     */
+    private final short[] overrideIds;
+
+    /**
+     * overrideValues[index] is the value now held by overrideIds[index], or REMOVED
+     */
+    private final long[] overrideValues;
+
+    /**
+     * @param main
+     * @param overrideIds overridden ids, ascending, not copied
+     * @param overrideValues the value held by each overridden id, not copied
+     */
+    OverlaidRangeContainer(final SortedArrayRangeQueryContainer main, final short[] overrideIds, final long[] overrideValues) {
+        this.main = main;
+        this.overrideIds = overrideIds;
+        this.overrideValues = overrideValues;
+    }
+
+    /**
+     * @return the number of ids holding a value other than their main structure value
+     */
+    int getNumberOfOverrides() {
+        return overrideIds.length;
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        final long upperRange = getCorrectUpperRange(fromValue, toValue, toInclusive);
+        final int startPosition = main.getPositionAbove(lowerRange);
+        final int endPosition = main.getPositionBelow(upperRange);
+        final Ids mainIds = main.getIds(startPosition, endPosition);
+        if (overrideIds.length == 0) {
+            return mainIds;
+        }
+        final short[] ids = new short[Math.max(0, endPosition - startPosition) + overrideIds.length];
+        int size = 0;
+        int overridden = 0;
+        short id;
+        while ((id = mainIds.nextId()) != Ids.END_OF_IDS) {
+            while (overridden < overrideIds.length && overrideIds[overridden] < id) {
+                if (isInRange(overrideValues[overridden], lowerRange, upperRange)) {
+                    ids[size++] = overrideIds[overridden];
+                }
+                overridden++;
+            }
+            if (overridden < overrideIds.length && overrideIds[overridden] == id) {
+                if (isInRange(overrideValues[overridden], lowerRange, upperRange)) {
+                    ids[size++] = id;
+                }
+                overridden++;
+            } else {
+                ids[size++] = id;
+            }
+        }
+        for (; overridden < overrideIds.length; overridden++) {
+            if (isInRange(overrideValues[overridden], lowerRange, upperRange)) {
+                ids[size++] = overrideIds[overridden];
+            }
+        }
+        return size == 0 ? DEFAULT_IDS_OBJECT : new WorkerIds(Arrays.copyOf(ids, size));
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        final long upperRange = getCorrectUpperRange(fromValue, toValue, toInclusive);
+        int count = Math.max(0, main.getPositionBelow(upperRange) - main.getPositionAbove(lowerRange));
+        for (int overridden = 0; overridden < overrideIds.length; overridden++) {
+            if (isInRange(getMainValue(overridden), lowerRange, upperRange)) {
+                count--;
+            }
+            if (isInRange(overrideValues[overridden], lowerRange, upperRange)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        final long upperRange = getCorrectUpperRange(fromValue, toValue, toInclusive);
+        final int startPosition = main.getPositionAbove(lowerRange);
+        final int endPosition = main.getPositionBelow(upperRange);
+        long sum = startPosition < endPosition ? main.getSum(startPosition, endPosition) : 0;
+        for (int overridden = 0; overridden < overrideIds.length; overridden++) {
+            final long mainValue = getMainValue(overridden);
+            if (isInRange(mainValue, lowerRange, upperRange)) {
+                sum -= mainValue;
+            }
+            if (isInRange(overrideValues[overridden], lowerRange, upperRange)) {
+                sum += overrideValues[overridden];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        final long upperRange = getCorrectUpperRange(fromValue, toValue, toInclusive);
+        // overridden ids no longer hold their main value, skip them
+        int position = main.getPositionAbove(lowerRange);
+        final int endPosition = main.getPositionBelow(upperRange);
+        while (position < endPosition && isOverridden(main.getIdAt(position))) {
+            position++;
+        }
+        long min = position < endPosition ? main.getValueAt(position) : NO_VALUE;
+        for (final long value : overrideValues) {
+            if (isInRange(value, lowerRange, upperRange) && (min == NO_VALUE || value < min)) {
+                min = value;
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        final long upperRange = getCorrectUpperRange(fromValue, toValue, toInclusive);
+        // overridden ids no longer hold their main value, skip them
+        final int startPosition = main.getPositionAbove(lowerRange);
+        int position = main.getPositionBelow(upperRange) - 1;
+        while (position >= startPosition && isOverridden(main.getIdAt(position))) {
+            position--;
+        }
+        long max = position >= startPosition ? main.getValueAt(position) : NO_VALUE;
+        for (final long value : overrideValues) {
+            if (isInRange(value, lowerRange, upperRange)) {
+                max = Math.max(max, value);
+            }
+        }
+        return max;
+    }
+
+    private boolean isOverridden(final short id) {
+        return Arrays.binarySearch(overrideIds, id) >= 0;
+    }
+
+    /**
+     * @return the value the main structure holds for the overridden id at index
+     */
+    private long getMainValue(final int index) {
+        final short id = overrideIds[index];
+        return id < main.size() ? main.getValueOf(id) : REMOVED;
+    }
+
+    /**
+     * @return whether value lies strictly between the exclusive range parameters
+     */
+    private static boolean isInRange(final long value, final long lowerRange, final long upperRange) {
+        return value > lowerRange && value < upperRange;
+    }
+
+}
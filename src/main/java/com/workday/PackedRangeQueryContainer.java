@@ -0,0 +1,341 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.firstPositionAbove;
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+import static com.workday.ContainerHelper.newIdBitSet;
+import static com.workday.ContainerHelper.setId;
+import static com.workday.ContainerHelper.sortByValue;
+
+import java.util.Arrays;
+
+/**<p>
+ * container holding worker net salary data in a compressed sorted column</br>
+ * sorted values are cut into blocks of {@link #BLOCK_SIZE}, each block stores its values as offsets from the block minimum,
+ * bit-packed at the width of the largest offset in the block</br>
+ * a skip index of block minimums and maximums finds the blocks holding the range boundaries,
+ * so a query decodes values of those two blocks only
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class PackedRangeQueryContainer implements ValueOrderedRangeContainer, SketchedRangeContainer {
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    /**
+     * results matching more than 1 in this many ids are collected in a bit set rather than sorted
+     */
+    private static final int BIT_SET_SELECTIVITY = 64;
+
+    private static final int BLOCK_SHIFT = 7;
+
+    /**
+     * number of values in a block
+     */
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final int size;
+
+    /**
+     * blockMinimums[block] is the lowest value in block, the frame of reference its offsets are taken from
+     */
+    private final long[] blockMinimums;
+
+    /**
+     * blockMaximums[block] is the highest value in block
+     */
+    private final long[] blockMaximums;
+
+    /**
+     * bit width of every offset in block
+     */
+    private final byte[] blockWidths;
+
+    /**
+     * first bit of block in packedValues
+     */
+    private final long[] blockStarts;
+
+    /**
+     * blockPrefixSums[block] is the sum of every value before block
+     */
+    private final long[] blockPrefixSums;
+
+    /**
+     * bit-packed offsets of every block
+     */
+    private final long[] packedValues;
+
+    /**
+     * ids[position] is the id holding the value at sorted position
+     */
+    private final short[] ids;
+
+    /**
+     * equi-depth histogram of the values, built with the container
+     */
+    private final QuantileSketch quantileSketch;
+
+    /**
+     * 
+     * @param data the data to be contained in this container
+     */
+    public PackedRangeQueryContainer(final long[] data) {
+        final long[] values = new long[data.length];
+        this.size = values.length;
+        this.ids = sortByValue(data, values);
+        this.quantileSketch = QuantileSketch.fromSortedValues(values, QuantileSketch.DEFAULT_NUMBER_OF_BUCKETS);
+        final int numberOfBlocks = (size + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        this.blockMinimums = new long[numberOfBlocks];
+        this.blockMaximums = new long[numberOfBlocks];
+        this.blockWidths = new byte[numberOfBlocks];
+        this.blockStarts = new long[numberOfBlocks + 1];
+        this.blockPrefixSums = new long[numberOfBlocks + 1];
+        for (int block = 0; block < numberOfBlocks; block++) {
+            final int blockStart = block << BLOCK_SHIFT;
+            final int blockEnd = Math.min(size, blockStart + BLOCK_SIZE);
+            blockMinimums[block] = values[blockStart];
+            blockMaximums[block] = values[blockEnd - 1];
+            // sorted, so the spread is the offset of the last value, compared unsigned in case it overflows
+            blockWidths[block] = (byte) (64 - Long.numberOfLeadingZeros(blockMaximums[block] - blockMinimums[block]));
+            blockStarts[block + 1] = blockStarts[block] + (long) blockWidths[block] * (blockEnd - blockStart);
+            long sum = 0;
+            for (int position = blockStart; position < blockEnd; position++) {
+                sum += values[position];
+            }
+            blockPrefixSums[block + 1] = blockPrefixSums[block] + sum;
+        }
+        this.packedValues = new long[(int) ((blockStarts[numberOfBlocks] + 63) >>> 6)];
+        for (int position = 0; position < size; position++) {
+            final int block = position >>> BLOCK_SHIFT;
+            pack(blockStarts[block] + (long) blockWidths[block] * (position & (BLOCK_SIZE - 1)), blockWidths[block], values[position] - blockMinimums[block]);
+        }
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        if (startPosition >= endPosition) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        if ((endPosition - startPosition) * BIT_SET_SELECTIVITY > size) {
+            final long[] bitSet = newIdBitSet(size);
+            for (int position = startPosition; position < endPosition; position++) {
+                setId(bitSet, this.ids[position]);
+            }
+            return new BitSetWorkerIds(bitSet);
+        }
+        final short[] ids = Arrays.copyOfRange(this.ids, startPosition, endPosition);
+        Arrays.sort(ids);
+        return new WorkerIds(ids);
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public ValuePage findInValueOrder(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive,
+            final boolean descending, final int offset, final int limit) {
+        int startPosition = 0;
+        int endPosition = 0;
+        if (!isInValidInput(fromValue, toValue) && !isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+            endPosition = Math.max(startPosition, getEndPosition(fromValue, toValue, toInclusive));
+        }
+        final int pageSize = ValuePage.getPageSize(endPosition - startPosition, offset, limit);
+        final short[] ids = new short[pageSize];
+        final long[] pageValues = new long[pageSize];
+        for (int index = 0; index < pageSize; index++) {
+            final int position = descending ? endPosition - 1 - offset - index : startPosition + offset + index;
+            ids[index] = this.ids[position];
+            pageValues[index] = getValueAt(position);
+        }
+        return new ValuePage(ids, pageValues, offset + pageSize, offset + pageSize < endPosition - startPosition);
+    }
+
+    @Override
+    public QuantileSketch getQuantileSketch() {
+        return quantileSketch;
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        return Math.max(0, getEndPosition(fromValue, toValue, toInclusive) - getStartPosition(fromValue, toValue, fromInclusive));
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        if (startPosition >= endPosition) {
+            return 0;
+        }
+        return getSumBefore(endPosition) - getSumBefore(startPosition);
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        if (startPosition >= getEndPosition(fromValue, toValue, toInclusive)) {
+            return NO_VALUE;
+        }
+        return getValueAt(startPosition);
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        if (getStartPosition(fromValue, toValue, fromInclusive) >= endPosition) {
+            return NO_VALUE;
+        }
+        return getValueAt(endPosition - 1);
+    }
+
+    /**
+     * @return the number of bytes holding the values, skip index included
+     */
+    long getValueSizeInBytes() {
+        return 8L * (packedValues.length + blockMinimums.length + blockMaximums.length + blockStarts.length + blockPrefixSums.length) + blockWidths.length;
+    }
+
+    /**
+     * @return the first sorted position in range
+     */
+    private int getStartPosition(final long fromValue, final long toValue, final boolean fromInclusive) {
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        final int block = firstPositionAbove(blockMaximums, lowerRange);
+        if (block == blockMaximums.length) {
+            return size;
+        }
+        // the block maximum is above lowerRange, so the search below ends inside the block
+        int low = block << BLOCK_SHIFT;
+        int high = Math.min(size, low + BLOCK_SIZE) - 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (getValueAt(middle) <= lowerRange) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the sorted position after the last in range
+     */
+    private int getEndPosition(final long fromValue, final long toValue, final boolean toInclusive) {
+        final long upperRange = getCorrectUpperRange(fromValue, toValue, toInclusive);
+        final int block = firstPositionAbove(blockMaximums, upperRange - 1);
+        if (block == blockMaximums.length) {
+            return size;
+        }
+        // the block maximum is at or above upperRange, so the search below ends inside the block
+        int low = block << BLOCK_SHIFT;
+        int high = Math.min(size, low + BLOCK_SIZE) - 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (getValueAt(middle) < upperRange) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the sum of every value before the sorted position
+     */
+    private long getSumBefore(final int position) {
+        final int block = position >>> BLOCK_SHIFT;
+        long sum = blockPrefixSums[block];
+        for (int inBlock = block << BLOCK_SHIFT; inBlock < position; inBlock++) {
+            sum += getValueAt(inBlock);
+        }
+        return sum;
+    }
+
+    /**
+     * @return the value at a sorted position, decoded from its block
+     */
+    private long getValueAt(final int position) {
+        final int block = position >>> BLOCK_SHIFT;
+        final int width = blockWidths[block];
+        if (width == 0) {
+            return blockMinimums[block];
+        }
+        final long bit = blockStarts[block] + (long) width * (position & (BLOCK_SIZE - 1));
+        final int word = (int) (bit >>> 6);
+        final int shift = (int) (bit & 63);
+        long offset = packedValues[word] >>> shift;
+        if (shift + width > 64) {
+            offset |= packedValues[word + 1] << (64 - shift);
+        }
+        if (width < 64) {
+            offset &= (1L << width) - 1;
+        }
+        return blockMinimums[block] + offset;
+    }
+
+    /**
+     * writes the low width bits of offset into the packed values from bit
+     */
+    private void pack(final long bit, final int width, final long offset) {
+        if (width == 0) {
+            return;
+        }
+        final int word = (int) (bit >>> 6);
+        final int shift = (int) (bit & 63);
+        packedValues[word] |= offset << shift;
+        if (shift + width > 64) {
+            packedValues[word + 1] |= offset >>> (64 - shift);
+        }
+    }
+
+}
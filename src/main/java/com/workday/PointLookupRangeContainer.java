@@ -0,0 +1,38 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * a container answering exact matches and reverse lookups without a range search
+ * 
+ * @author eiathom
+ * 
+ */
+public interface PointLookupRangeContainer extends RangeContainer {
+
+    /**
+     * @param value
+     * @return the ids {@link #findIdsInRange(long, long, boolean, boolean)} would return for value to value, both inclusive
+     */
+    Ids findIdsEqual(final long value);
+
+    /**
+     * @param id
+     * @return the value held by id, or {@link #NO_VALUE} when id is not in this container
+     */
+    long valueOf(final short id);
+
+}
@@ -0,0 +1,289 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.firstPositionAbove;
+import static com.workday.ContainerHelper.firstPositionAtOrAbove;
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+import static com.workday.ContainerHelper.newIdBitSet;
+import static com.workday.ContainerHelper.setId;
+import static com.workday.ContainerHelper.sortByValue;
+
+import java.util.Arrays;
+
+/**<p>
+ * container holding worker net salary data as one posting list of ids per distinct value</br>
+ * every worker sharing a salary is kept, and the values cost memory per distinct salary rather than per worker</br>
+ * </p>
+ * <p>
+ * each posting list is a run of shorts in one contiguous array, ids ascending:</br>
+ * an entry n >= 0 is the id n + 1 after the previous id (the first id follows -1)</br>
+ * an entry -n is a run of the n ids directly after the previous id</br>
+ * so a block of workers sharing a pay grade costs two shorts however many workers it holds
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class PostingListRangeQueryContainer implements SketchedRangeContainer {
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    /**
+     * results matching more than 1 in this many ids are collected in a bit set rather than sorted
+     */
+    private static final int BIT_SET_SELECTIVITY = 64;
+
+    /**
+     * distinct container values, sorted from lower to higher
+     */
+    private final long[] distinctValues;
+
+    /**
+     * the posting list of distinctValues[index] is postings[postingStarts[index]] to postings[postingStarts[index + 1] - 1]
+     */
+    private final int[] postingStarts;
+
+    /**
+     * every posting list, encoded
+     */
+    private final short[] postings;
+
+    /**
+     * idCounts[index] is the number of ids holding a value before distinctValues[index]
+     */
+    private final int[] idCounts;
+
+    /**
+     * prefixSums[index] is the sum of every value before distinctValues[index]
+     */
+    private final long[] prefixSums;
+
+    /**
+     * equi-depth histogram of the values, built with the container
+     */
+    private final QuantileSketch quantileSketch;
+
+    /**
+     * 
+     * @param data the data to be contained in this container
+     */
+    public PostingListRangeQueryContainer(final long[] data) {
+        final long[] sortedValues = new long[data.length];
+        final short[] ids = sortByValue(data, sortedValues);
+        this.quantileSketch = QuantileSketch.fromSortedValues(sortedValues, QuantileSketch.DEFAULT_NUMBER_OF_BUCKETS);
+        int numberOfDistinctValues = 0;
+        for (int position = 0; position < sortedValues.length; position++) {
+            if (position == 0 || sortedValues[position] != sortedValues[position - 1]) {
+                numberOfDistinctValues++;
+            }
+        }
+        this.distinctValues = new long[numberOfDistinctValues];
+        this.postingStarts = new int[numberOfDistinctValues + 1];
+        this.idCounts = new int[numberOfDistinctValues + 1];
+        this.prefixSums = new long[numberOfDistinctValues + 1];
+        final short[] encoded = new short[data.length];
+        int encodedLength = 0;
+        int position = 0;
+        for (int index = 0; index < numberOfDistinctValues; index++) {
+            final int endPosition = firstPositionAbove(sortedValues, position, sortedValues.length, sortedValues[position]);
+            this.distinctValues[index] = sortedValues[position];
+            this.postingStarts[index] = encodedLength;
+            this.idCounts[index + 1] = endPosition;
+            this.prefixSums[index + 1] = this.prefixSums[index] + sortedValues[position] * (endPosition - position);
+            encodedLength = encode(ids, position, endPosition, encoded, encodedLength);
+            position = endPosition;
+        }
+        this.postingStarts[numberOfDistinctValues] = encodedLength;
+        this.postings = Arrays.copyOf(encoded, encodedLength);
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final int startIndex = getStartIndex(fromValue, toValue, fromInclusive);
+        final int endIndex = getEndIndex(fromValue, toValue, toInclusive);
+        if (startIndex >= endIndex) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final int numberOfIds = idCounts[endIndex] - idCounts[startIndex];
+        if (numberOfIds * BIT_SET_SELECTIVITY > idCounts[idCounts.length - 1]) {
+            final long[] bitSet = newIdBitSet(idCounts[idCounts.length - 1]);
+            for (int index = startIndex; index < endIndex; index++) {
+                decodeToBitSet(postingStarts[index], postingStarts[index + 1], bitSet);
+            }
+            return new BitSetWorkerIds(bitSet);
+        }
+        final short[] ids = new short[numberOfIds];
+        int size = 0;
+        for (int index = startIndex; index < endIndex; index++) {
+            size = decode(postingStarts[index], postingStarts[index + 1], ids, size);
+        }
+        if (endIndex - startIndex > 1) {
+            Arrays.sort(ids);
+        }
+        return new WorkerIds(ids);
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public QuantileSketch getQuantileSketch() {
+        return quantileSketch;
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final int startIndex = getStartIndex(fromValue, toValue, fromInclusive);
+        final int endIndex = getEndIndex(fromValue, toValue, toInclusive);
+        return startIndex >= endIndex ? 0 : idCounts[endIndex] - idCounts[startIndex];
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final int startIndex = getStartIndex(fromValue, toValue, fromInclusive);
+        final int endIndex = getEndIndex(fromValue, toValue, toInclusive);
+        return startIndex >= endIndex ? 0 : prefixSums[endIndex] - prefixSums[startIndex];
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int startIndex = getStartIndex(fromValue, toValue, fromInclusive);
+        return startIndex >= getEndIndex(fromValue, toValue, toInclusive) ? NO_VALUE : distinctValues[startIndex];
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int endIndex = getEndIndex(fromValue, toValue, toInclusive);
+        return getStartIndex(fromValue, toValue, fromInclusive) >= endIndex ? NO_VALUE : distinctValues[endIndex - 1];
+    }
+
+    /**
+     * @return the index of the first distinct value in range
+     */
+    private int getStartIndex(final long fromValue, final long toValue, final boolean fromInclusive) {
+        return firstPositionAbove(distinctValues, getCorrectLowerRange(fromValue, toValue, fromInclusive));
+    }
+
+    /**
+     * @return the index after the last distinct value in range
+     */
+    private int getEndIndex(final long fromValue, final long toValue, final boolean toInclusive) {
+        return firstPositionAtOrAbove(distinctValues, getCorrectUpperRange(fromValue, toValue, toInclusive));
+    }
+
+    /**
+     * @param startPosition first entry of the posting list
+     * @param endPosition entry after the last of the posting list
+     * @param ids decoded ids are added here
+     * @param size number of ids already in ids
+     * @return the number of ids now in ids
+     */
+    private int decode(final int startPosition, final int endPosition, final short[] ids, final int size) {
+        int count = size;
+        int previousId = -1;
+        for (int position = startPosition; position < endPosition; position++) {
+            final short entry = postings[position];
+            if (entry >= 0) {
+                previousId += entry + 1;
+                ids[count++] = (short) previousId;
+            } else {
+                for (int run = entry; run < 0; run++) {
+                    ids[count++] = (short) ++previousId;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param startPosition first entry of the posting list
+     * @param endPosition entry after the last of the posting list
+     * @param bitSet decoded ids are set here
+     */
+    private void decodeToBitSet(final int startPosition, final int endPosition, final long[] bitSet) {
+        int previousId = -1;
+        for (int position = startPosition; position < endPosition; position++) {
+            final short entry = postings[position];
+            if (entry >= 0) {
+                previousId += entry + 1;
+                setId(bitSet, (short) previousId);
+            } else {
+                for (int run = entry; run < 0; run++) {
+                    setId(bitSet, (short) ++previousId);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param ids ascending ids sharing one value
+     * @param startPosition first id to encode
+     * @param endPosition position after the last id to encode
+     * @param encoded the encoded posting lists
+     * @param encodedLength number of entries already in encoded
+     * @return the number of entries now in encoded
+     */
+    private static int encode(final short[] ids, final int startPosition, final int endPosition, final short[] encoded, final int encodedLength) {
+        int length = encodedLength;
+        int previousId = -1;
+        int position = startPosition;
+        while (position < endPosition) {
+            int runLength = 0;
+            while (position + runLength < endPosition && ids[position + runLength] == previousId + runLength + 1) {
+                runLength++;
+            }
+            if (runLength > 1) {
+                encoded[length++] = (short) -runLength;
+                previousId += runLength;
+                position += runLength;
+            } else {
+                encoded[length++] = (short) (ids[position] - previousId - 1);
+                previousId = ids[position++];
+            }
+        }
+        return length;
+    }
+
+}
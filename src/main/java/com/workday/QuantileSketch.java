@@ -0,0 +1,167 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+
+/**<p>
+ * compact equi-depth histogram of a container's values, kept beside the container and answering
+ * quantile, rank and approximate count queries in logarithmic time, without touching the container</br>
+ * the sketch holds the values at evenly spaced ranks of the sorted data, the minimum and maximum included,
+ * so every answer is off by at most {@link #getRankError()} ranks, or {@link #getCountError()} ids for counts</br>
+ * a count estimate of 0 with a range outside the minimum and maximum is exact, a caller can skip fetching ids
+ * when {@link #getCountUpperBound(long, long, boolean, boolean)} is 0
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class QuantileSketch {
+
+    /**
+     * default number of buckets, ranks are then within 1/256 of the size of the data
+     */
+    public static final int DEFAULT_NUMBER_OF_BUCKETS = 128;
+
+    private final int size;
+
+    /**
+     * boundaries[bucket] is the value at rank ranks[bucket], from the minimum to the maximum
+     */
+    private final long[] boundaries;
+
+    private final int[] ranks;
+
+    private final int rankError;
+
+    private QuantileSketch(final long[] sortedValues, final int numberOfBuckets) {
+        this.size = sortedValues.length;
+        final int buckets = size < 2 ? 0 : Math.min(numberOfBuckets, size - 1);
+        this.boundaries = new long[size == 0 ? 0 : buckets + 1];
+        this.ranks = new int[boundaries.length];
+        for (int bucket = 0; bucket < boundaries.length; bucket++) {
+            ranks[bucket] = buckets == 0 ? 0 : (int) ((long) bucket * (size - 1) / buckets);
+            boundaries[bucket] = sortedValues[ranks[bucket]];
+        }
+        this.rankError = buckets == 0 ? 0 : (size - 1 + 2 * buckets - 1) / (2 * buckets) + 1;
+    }
+
+    /**
+     * @param data the data of a container, indexed by id
+     * @return a sketch of data in {@link #DEFAULT_NUMBER_OF_BUCKETS} buckets
+     */
+    public static QuantileSketch of(final long[] data) {
+        final long[] sortedValues = new long[data.length];
+        ContainerHelper.sortByValue(data, sortedValues);
+        return fromSortedValues(sortedValues, DEFAULT_NUMBER_OF_BUCKETS);
+    }
+
+    /**
+     * @param sortedValues sorted from lower to higher, not kept
+     * @param numberOfBuckets more buckets lower the error bound, each costs a long and an int
+     * @return a sketch of sortedValues
+     */
+    public static QuantileSketch fromSortedValues(final long[] sortedValues, final int numberOfBuckets) {
+        if (numberOfBuckets < 1) {
+            throw new IllegalArgumentException("numberOfBuckets must be positive");
+        }
+        return new QuantileSketch(sortedValues, numberOfBuckets);
+    }
+
+    /**
+     * @return the number of values sketched
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param quantile between 0 and 1, 0.5 for the median
+     * @return a value whose rank is within {@link #getRankError()} of quantile * (size - 1), or {@link RangeContainer#NO_VALUE} if nothing is sketched
+     */
+    public long quantile(final double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        if (size == 0) {
+            return RangeContainer.NO_VALUE;
+        }
+        return boundaries[(int) Math.round(quantile * (boundaries.length - 1))];
+    }
+
+    /**
+     * @param value
+     * @return the estimated number of values below value, within {@link #getRankError()}, exact below the minimum and above the maximum
+     */
+    public int rank(final long value) {
+        final int bucket = ContainerHelper.firstPositionAtOrAbove(boundaries, value);
+        if (bucket == 0) {
+            return 0;
+        }
+        if (bucket == boundaries.length) {
+            return size;
+        }
+        // ranks[bucket - 1] holds a value below, ranks[bucket] one at or above, so the rank lies between them
+        return (ranks[bucket - 1] + 1 + ranks[bucket]) >>> 1;
+    }
+
+    /**
+     * @return the estimated number of values in range, within {@link #getCountError()}
+     */
+    public int approximateCountInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        if (lowerRange == Long.MAX_VALUE) {
+            return 0;
+        }
+        return Math.max(0, rank(getCorrectUpperRange(fromValue, toValue, toInclusive)) - rank(lowerRange + 1));
+    }
+
+    /**
+     * @return a bound no count in range can exceed, 0 only when nothing is in range
+     */
+    public int getCountUpperBound(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive) || size == 0) {
+            return 0;
+        }
+        final long lowerRange = getCorrectLowerRange(fromValue, toValue, fromInclusive);
+        final long upperRange = getCorrectUpperRange(fromValue, toValue, toInclusive);
+        if (lowerRange >= boundaries[boundaries.length - 1] || upperRange <= boundaries[0]) {
+            return 0;
+        }
+        return Math.min(size, approximateCountInRange(fromValue, toValue, fromInclusive, toInclusive) + getCountError());
+    }
+
+    /**
+     * @return the most a rank or quantile answer is off by, in ranks
+     */
+    public int getRankError() {
+        return rankError;
+    }
+
+    /**
+     * @return the most an approximate count is off by, in ids
+     */
+    public int getCountError() {
+        return 2 * rankError;
+    }
+
+}
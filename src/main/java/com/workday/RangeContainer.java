@@ -23,8 +23,41 @@ package com.workday;
  */
 public interface RangeContainer {
 
+    /**
+     * returned by {@link #minInRange(long, long, boolean, boolean)} and {@link #maxInRange(long, long, boolean, boolean)} when no value is in range
+     */
+    static final long NO_VALUE = Long.MIN_VALUE;
+
     /**
      * @return the Ids of all instances found in the container that have data value between fromValue and toValue with optional inclusivity
      */
     Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
+    /**
+     * answers many range queries at once, range n is described by the n'th element of every array
+     * 
+     * @return one Ids per range, in the order of the ranges given, each as {@link #findIdsInRange(long, long, boolean, boolean)} would return
+     */
+    Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive);
+
+    /**
+     * @return the number of instances {@link #findIdsInRange(long, long, boolean, boolean)} would return for the same range
+     */
+    int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
+    /**
+     * @return the sum of the data values in range, 0 when no value is in range
+     */
+    long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
+    /**
+     * @return the lowest data value in range, or {@link #NO_VALUE} when no value is in range
+     */
+    long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
+    /**
+     * @return the highest data value in range, or {@link #NO_VALUE} when no value is in range
+     */
+    long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive);
+
 }
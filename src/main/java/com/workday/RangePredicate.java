@@ -0,0 +1,71 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * a range query on one column of a {@link MultiColumnRangeQueryContainer}
+ * 
+ * @author eiathom
+ *
+ */
+public final class RangePredicate {
+
+    private final int column;
+
+    private final long fromValue;
+
+    private final long toValue;
+
+    private final boolean fromInclusive;
+
+    private final boolean toInclusive;
+
+    /**
+     * @param column index of the column queried, as given to the container
+     * @param fromValue
+     * @param toValue
+     * @param fromInclusive
+     * @param toInclusive
+     */
+    public RangePredicate(final int column, final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        this.column = column;
+        this.fromValue = fromValue;
+        this.toValue = toValue;
+        this.fromInclusive = fromInclusive;
+        this.toInclusive = toInclusive;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public long getFromValue() {
+        return fromValue;
+    }
+
+    public long getToValue() {
+        return toValue;
+    }
+
+    public boolean isFromInclusive() {
+        return fromInclusive;
+    }
+
+    public boolean isToInclusive() {
+        return toInclusive;
+    }
+
+}
@@ -23,7 +23,7 @@ public interface RangeQueryContainerFactory {
 
     /**
      * builds an immutable container optimized for range queries.
-     * Data is expected to be 32k items or less.
+     * Data is expected to be 32k items or less, see {@link IntRangeQueryContainerFactory} for larger data.
      * The position in the 'data' array represents the 'id' for that instance in question.
      * For the 'PayrollResult' example before, the 'id' might be 
      * the workers employee number, the data value is the corresponding net pay.
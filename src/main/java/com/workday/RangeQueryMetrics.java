@@ -0,0 +1,69 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * receives measurements of container queries and builds, implementations must be safe from any thread and should not lock or allocate
+ * 
+ * @author eiathom
+ *
+ */
+public interface RangeQueryMetrics {
+
+    /**
+     * metrics switched off, nothing is measured, see {@link MeteredRangeQueryContainerFactory}
+     */
+    static final RangeQueryMetrics DISABLED = new RangeQueryMetrics() {
+
+        @Override
+        public void recordQuery(final long latencyInNanoSeconds, final long rangeWidth, final int resultSize) {}
+
+        @Override
+        public void recordBatch(final long latencyInNanoSeconds, final int numberOfRanges) {}
+
+        @Override
+        public void recordAggregate(final long latencyInNanoSeconds) {}
+
+        @Override
+        public void recordBuild(final long buildTimeInNanoSeconds, final int size) {}
+
+    };
+
+    /**
+     * @param latencyInNanoSeconds time taken to answer an id query
+     * @param rangeWidth number of values the queried range covers
+     * @param resultSize number of ids matching, or -1 when not known without reading the result
+     */
+    void recordQuery(final long latencyInNanoSeconds, final long rangeWidth, final int resultSize);
+
+    /**
+     * @param latencyInNanoSeconds time taken to answer a batch of id queries
+     * @param numberOfRanges number of ranges in the batch
+     */
+    void recordBatch(final long latencyInNanoSeconds, final int numberOfRanges);
+
+    /**
+     * @param latencyInNanoSeconds time taken to answer a count, sum, min or max query
+     */
+    void recordAggregate(final long latencyInNanoSeconds);
+
+    /**
+     * @param buildTimeInNanoSeconds time taken to build the container
+     * @param size number of ids in the container
+     */
+    void recordBuild(final long buildTimeInNanoSeconds, final int size);
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * JMX view of {@link HistogramRangeQueryMetrics}, times in nanoseconds, percentiles and the maximum are upper bounds within a factor of 2
+ * 
+ * @author eiathom
+ *
+ */
+public interface RangeQueryMetricsMXBean {
+
+    long getQueryCount();
+
+    double getQueryLatencyMean();
+
+    long getQueryLatencyP50();
+
+    long getQueryLatencyP99();
+
+    double getResultSizeMean();
+
+    long getResultSizeP99();
+
+    double getRangeWidthMean();
+
+    long getRangeWidthP99();
+
+    long getBatchCount();
+
+    double getBatchLatencyMean();
+
+    long getBatchLatencyP99();
+
+    double getBatchSizeMean();
+
+    long getAggregateCount();
+
+    double getAggregateLatencyMean();
+
+    long getAggregateLatencyP99();
+
+    long getBuildCount();
+
+    double getBuildTimeMean();
+
+    long getBuildTimeMax();
+
+    double getBuildSizeMean();
+
+    long getBuildSizeMax();
+
+}
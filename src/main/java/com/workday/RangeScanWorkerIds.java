@@ -0,0 +1,75 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * worker ids found lazily, as they are asked for, by scanning the container values in id order.
+ * nothing is collected up front, so a caller stopping early only pays for the ids it has read
+ * 
+ * @author eiathom
+ *
+ */
+public class RangeScanWorkerIds implements Ids {
+
+    /**
+     * idOrderedValues[id] is the value held by id
+     */
+    private final long[] idOrderedValues;
+
+    private final long lowestValue;
+
+    private final long highestValue;
+
+    /**
+     * the next id to check
+     */
+    private int id;
+
+    /**
+     * @param idOrderedValues the container values indexed by id
+     * @param lowestValue lowest value in range, inclusive
+     * @param highestValue highest value in range, inclusive
+     */
+    public RangeScanWorkerIds(final long[] idOrderedValues, final long lowestValue, final long highestValue) {
+        this.idOrderedValues = idOrderedValues;
+        this.lowestValue = lowestValue;
+        this.highestValue = highestValue;
+    }
+
+    @Override
+    public short nextId() {
+        while (id < idOrderedValues.length) {
+            final long value = idOrderedValues[id++];
+            if (value >= lowestValue && value <= highestValue) {
+                return (short) (id - 1);
+            }
+        }
+        return Ids.END_OF_IDS;
+    }
+
+    @Override
+    public int nextIds(final short[] buffer) {
+        int count = 0;
+        for (; count < buffer.length && id < idOrderedValues.length; id++) {
+            final long value = idOrderedValues[id];
+            if (value >= lowestValue && value <= highestValue) {
+                buffer[count++] = (short) id;
+            }
+        }
+        return count;
+    }
+
+}
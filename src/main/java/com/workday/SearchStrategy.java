@@ -0,0 +1,62 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * ways of locating range boundaries in a sorted column of values
+ * 
+ * @author eiathom
+ *
+ */
+public enum SearchStrategy {
+
+    /**
+     * binary search over the sorted values, no extra memory
+     */
+    BINARY {
+        @Override
+        PositionSearch newSearch(final long[] sortedValues) {
+            return new BinaryPositionSearch(sortedValues);
+        }
+    },
+
+    /**
+     * branch free search over a cache friendly copy of the values, one long and one int per value
+     */
+    EYTZINGER {
+        @Override
+        PositionSearch newSearch(final long[] sortedValues) {
+            return new EytzingerPositionSearch(sortedValues);
+        }
+    },
+
+    /**
+     * search confined to the bucket a value interpolates to, one int per 32 values, suited to close to uniform data
+     */
+    INTERPOLATION {
+        @Override
+        PositionSearch newSearch(final long[] sortedValues) {
+            return new InterpolationPositionSearch(sortedValues);
+        }
+    };
+
+    /**
+     * @param sortedValues sorted from lower to higher, not copied
+     * @return a search over sortedValues
+     */
+    abstract PositionSearch newSearch(final long[] sortedValues);
+
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**<p>
+ * container holding worker net salary data beyond the 32k limit of a single {@link RangeContainer}</br>
+ * the data is split into fixed size segments of consecutive ids, each held in its own {@link RangeContainer},
+ * segments are built and queried in parallel on a {@link ForkJoinPool}</br>
+ * segment n holds ids from n * segmentSize, so the ids of each segment follow those of the one before
+ * and concatenating segment results in segment order keeps every id in ascending order
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class SegmentedRangeQueryContainer implements IntRangeContainer {
+
+    /**
+     * the largest segment, every id within a segment fits in a short
+     */
+    public static final int SEGMENT_SIZE = Short.MAX_VALUE + 1;
+
+    /**
+     * pool shared by segmented containers built without one
+     */
+    private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool();
+
+    private final RangeContainer[] segments;
+
+    private final int segmentSize;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param data the data to be contained in this container
+     */
+    public SegmentedRangeQueryContainer(final long[] data) {
+        this(data, new SortedArrayRangeQueryContainerFactory(), DEFAULT_POOL);
+    }
+
+    /**
+     * @param data the data to be contained in this container
+     * @param segmentFactory builds the container for each segment
+     * @param pool runs segment builds and queries
+     */
+    public SegmentedRangeQueryContainer(final long[] data, final RangeQueryContainerFactory segmentFactory, final ForkJoinPool pool) {
+        this(data, segmentFactory, pool, SEGMENT_SIZE);
+    }
+
+    /**
+     * @param data the data to be contained in this container
+     * @param segmentFactory builds the container for each segment
+     * @param pool runs segment builds and queries
+     * @param segmentSize number of ids in each segment but the last
+     */
+    SegmentedRangeQueryContainer(final long[] data, final RangeQueryContainerFactory segmentFactory, final ForkJoinPool pool, final int segmentSize) {
+        if (segmentSize < 1 || segmentSize > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segment size must be between 1 and " + SEGMENT_SIZE);
+        }
+        this.segmentSize = segmentSize;
+        this.pool = pool;
+        this.segments = new RangeContainer[(data.length + segmentSize - 1) / segmentSize];
+        pool.invoke(new BuildSegments(data, segmentFactory, 0, segments.length));
+    }
+
+    /**
+     * @return the pool used by segmented containers built without one
+     */
+    public static ForkJoinPool getDefaultPool() {
+        return DEFAULT_POOL;
+    }
+
+    @Override
+    public IntIds findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final Ids[] segmentIds = new Ids[segments.length];
+        final FindSegmentIds task = new FindSegmentIds(segmentIds, fromValue, toValue, fromInclusive, toInclusive, 0, segments.length);
+        if (segments.length > 1) {
+            pool.invoke(task);
+        } else {
+            task.compute();
+        }
+        return new SegmentedWorkerIds(segmentIds, segmentSize);
+    }
+
+    @Override
+    public long countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long count = 0;
+        for (final RangeContainer segment : segments) {
+            count += segment.countInRange(fromValue, toValue, fromInclusive, toInclusive);
+        }
+        return count;
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long sum = 0;
+        for (final RangeContainer segment : segments) {
+            sum += segment.sumInRange(fromValue, toValue, fromInclusive, toInclusive);
+        }
+        return sum;
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long min = NO_VALUE;
+        for (final RangeContainer segment : segments) {
+            final long segmentMin = segment.minInRange(fromValue, toValue, fromInclusive, toInclusive);
+            if (segmentMin != NO_VALUE && (min == NO_VALUE || segmentMin < min)) {
+                min = segmentMin;
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long max = NO_VALUE;
+        for (final RangeContainer segment : segments) {
+            max = Math.max(max, segment.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+        }
+        return max;
+    }
+
+    /**
+     * builds segments fromSegment to toSegment - 1, splitting until each task builds one segment
+     */
+    private final class BuildSegments extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] data;
+
+        private final RangeQueryContainerFactory segmentFactory;
+
+        private final int fromSegment;
+
+        private final int toSegment;
+
+        BuildSegments(final long[] data, final RangeQueryContainerFactory segmentFactory, final int fromSegment, final int toSegment) {
+            this.data = data;
+            this.segmentFactory = segmentFactory;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+        }
+
+        @Override
+        protected void compute() {
+            if (toSegment - fromSegment > 1) {
+                final int middle = (fromSegment + toSegment) >>> 1;
+                invokeAll(new BuildSegments(data, segmentFactory, fromSegment, middle), new BuildSegments(data, segmentFactory, middle, toSegment));
+                return;
+            }
+            for (int segment = fromSegment; segment < toSegment; segment++) {
+                final int fromId = segment * segmentSize;
+                segments[segment] = segmentFactory.createContainer(Arrays.copyOfRange(data, fromId, Math.min(data.length, fromId + segmentSize)));
+            }
+        }
+
+    }
+
+    /**
+     * queries segments fromSegment to toSegment - 1, splitting until each task queries one segment
+     */
+    private final class FindSegmentIds extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Ids[] segmentIds;
+
+        private final long fromValue;
+
+        private final long toValue;
+
+        private final boolean fromInclusive;
+
+        private final boolean toInclusive;
+
+        private final int fromSegment;
+
+        private final int toSegment;
+
+        FindSegmentIds(final Ids[] segmentIds, final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive,
+                final int fromSegment, final int toSegment) {
+            this.segmentIds = segmentIds;
+            this.fromValue = fromValue;
+            this.toValue = toValue;
+            this.fromInclusive = fromInclusive;
+            this.toInclusive = toInclusive;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+        }
+
+        @Override
+        protected void compute() {
+            if (toSegment - fromSegment > 1) {
+                final int middle = (fromSegment + toSegment) >>> 1;
+                invokeAll(new FindSegmentIds(segmentIds, fromValue, toValue, fromInclusive, toInclusive, fromSegment, middle),
+                        new FindSegmentIds(segmentIds, fromValue, toValue, fromInclusive, toInclusive, middle, toSegment));
+                return;
+            }
+            for (int segment = fromSegment; segment < toSegment; segment++) {
+                segmentIds[segment] = segments[segment].findIdsInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author eiathom
+ *
+ */
+public class SegmentedRangeQueryContainerFactory implements IntRangeQueryContainerFactory {
+
+    private final RangeQueryContainerFactory segmentFactory;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * segments are sorted array containers queried on a pool shared by every segmented container
+     */
+    public SegmentedRangeQueryContainerFactory() {
+        this(new SortedArrayRangeQueryContainerFactory(), SegmentedRangeQueryContainer.getDefaultPool());
+    }
+
+    /**
+     * @param segmentFactory builds the container for each segment
+     * @param pool runs segment builds and queries
+     */
+    public SegmentedRangeQueryContainerFactory(final RangeQueryContainerFactory segmentFactory, final ForkJoinPool pool) {
+        this.segmentFactory = segmentFactory;
+        this.pool = pool;
+    }
+
+    @Override
+    public IntRangeContainer createContainer(final long[] data) {
+        return new SegmentedRangeQueryContainer(data, segmentFactory, pool);
+    }
+
+}
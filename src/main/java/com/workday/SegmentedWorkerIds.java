@@ -0,0 +1,80 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * worker ids of a segmented container, the ids of each segment in turn offset by the segment start
+ * 
+ * @author eiathom
+ *
+ */
+public class SegmentedWorkerIds implements IntIds {
+
+    private final Ids[] segmentIds;
+
+    private final int segmentSize;
+
+    private int segment;
+
+    /**
+     * reused by {@link #nextIds(int[])}
+     */
+    private short[] buffer;
+
+    /**
+     * @param segmentIds the ids found in each segment, in segment order
+     * @param segmentSize number of ids in each segment but the last
+     */
+    public SegmentedWorkerIds(final Ids[] segmentIds, final int segmentSize) {
+        this.segmentIds = segmentIds;
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public int nextId() {
+        while (segment < segmentIds.length) {
+            final short id = segmentIds[segment].nextId();
+            if (id != Ids.END_OF_IDS) {
+                return segment * segmentSize + id;
+            }
+            segment++;
+        }
+        return IntIds.END_OF_IDS;
+    }
+
+    /**
+     * reads from one segment per call, so fewer ids than fit in buffer does not mean the end of data
+     */
+    @Override
+    public int nextIds(final int[] buffer) {
+        if (this.buffer == null || this.buffer.length != buffer.length) {
+            this.buffer = new short[buffer.length];
+        }
+        int count = 0;
+        while (count == 0 && segment < segmentIds.length) {
+            count = segmentIds[segment].nextIds(this.buffer);
+            if (count == 0) {
+                segment++;
+            }
+        }
+        final int offset = segment * segmentSize;
+        for (int index = 0; index < count; index++) {
+            buffer[index] = offset + this.buffer[index];
+        }
+        return count;
+    }
+
+}
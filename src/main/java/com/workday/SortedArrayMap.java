@@ -0,0 +1,155 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**<p>
+ * unmodifiable sorted map view of values, sorted from lower to higher, mapped to their ids</br>
+ * equal values are kept as separate entries, as the container comparator keeps them</br>
+ * iterating it in order lets {@link java.util.concurrent.ConcurrentSkipListMap#ConcurrentSkipListMap(SortedMap)}
+ * link its nodes straight from the entries, without comparing any keys</br>
+ * sub map views are ranges of positions found by binary search, keys beyond a view select its ends;
+ * every change, through the map, its views or their iterators, throws UnsupportedOperationException
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+final class SortedArrayMap extends AbstractMap<Long, Short> implements SortedMap<Long, Short> {
+
+    private final long[] sortedValues;
+
+    private final short[] ids;
+
+    /**
+     * first position in this view
+     */
+    private final int fromPosition;
+
+    /**
+     * position after the last in this view
+     */
+    private final int toPosition;
+
+    /**
+     * @param sortedValues sorted from lower to higher
+     * @param ids ids[position] is the id holding sortedValues[position]
+     */
+    SortedArrayMap(final long[] sortedValues, final short[] ids) {
+        this(sortedValues, ids, 0, sortedValues.length);
+    }
+
+    private SortedArrayMap(final long[] sortedValues, final short[] ids, final int fromPosition, final int toPosition) {
+        this.sortedValues = sortedValues;
+        this.ids = ids;
+        this.fromPosition = fromPosition;
+        this.toPosition = toPosition;
+    }
+
+    @Override
+    public Comparator<? super Long> comparator() {
+        return ContainerHelper.getComparator();
+    }
+
+    @Override
+    public Set<Map.Entry<Long, Short>> entrySet() {
+        return new AbstractSet<Map.Entry<Long, Short>>() {
+            @Override
+            public Iterator<Map.Entry<Long, Short>> iterator() {
+                return new Iterator<Map.Entry<Long, Short>>() {
+
+                    private int position = fromPosition;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < toPosition;
+                    }
+
+                    @Override
+                    public Map.Entry<Long, Short> next() {
+                        if (position >= toPosition) {
+                            throw new NoSuchElementException();
+                        }
+                        final Map.Entry<Long, Short> entry = new SimpleImmutableEntry<>(sortedValues[position], ids[position]);
+                        position++;
+                        return entry;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return toPosition - fromPosition;
+            }
+        };
+    }
+
+    @Override
+    public Long firstKey() {
+        if (fromPosition >= toPosition) {
+            throw new NoSuchElementException();
+        }
+        return sortedValues[fromPosition];
+    }
+
+    @Override
+    public Long lastKey() {
+        if (fromPosition >= toPosition) {
+            throw new NoSuchElementException();
+        }
+        return sortedValues[toPosition - 1];
+    }
+
+    @Override
+    public SortedMap<Long, Short> subMap(final Long fromKey, final Long toKey) {
+        if (fromKey > toKey) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new SortedArrayMap(sortedValues, ids, getPosition(fromKey), getPosition(toKey));
+    }
+
+    @Override
+    public SortedMap<Long, Short> headMap(final Long toKey) {
+        return new SortedArrayMap(sortedValues, ids, fromPosition, getPosition(toKey));
+    }
+
+    @Override
+    public SortedMap<Long, Short> tailMap(final Long fromKey) {
+        return new SortedArrayMap(sortedValues, ids, getPosition(fromKey), toPosition);
+    }
+
+    /**
+     * @return the first position in this view holding a value greater than or equal to key
+     */
+    private int getPosition(final long key) {
+        return ContainerHelper.firstPositionAtOrAbove(sortedValues, fromPosition, toPosition, key);
+    }
+
+}
@@ -0,0 +1,479 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static com.workday.ContainerHelper.firstPositionAbove;
+import static com.workday.ContainerHelper.checkRanges;
+import static com.workday.ContainerHelper.firstPositionAtOrAbove;
+import static com.workday.ContainerHelper.getCorrectLowerRange;
+import static com.workday.ContainerHelper.getCorrectUpperRange;
+import static com.workday.ContainerHelper.isInValidInput;
+import static com.workday.ContainerHelper.isUnProcessibleQuery;
+import static com.workday.ContainerHelper.newIdBitSet;
+import static com.workday.ContainerHelper.setId;
+import static com.workday.ContainerHelper.sortByValue;
+
+import java.util.Arrays;
+
+/**
+ * container holding worker net salary data in primitive sorted columns
+ *
+ * @author eiathom
+ *
+ */
+public final class SortedArrayRangeQueryContainer implements ValueOrderedRangeContainer, SketchedRangeContainer, PointLookupRangeContainer {
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    /**
+     * results matching more than 1 in this many ids are collected in a bit set rather than sorted,
+     * a bit set costs one bit per id in the container where sorting costs a log factor per matching id
+     */
+    private static final int BIT_SET_SELECTIVITY = 64;
+
+    /**
+     * results missing fewer than 1 in this many ids are streamed lazily by scanning the values in id order,
+     * the scan then rarely skips a value, its range check stays predictable, and nothing is collected up front
+     */
+    private static final int SCAN_MISS_RATE = 16;
+
+    /**
+     * batches of ranges matching, in total, more than 1 in this many ids are answered by a single sweep over every id
+     */
+    private static final int SWEEP_COVERAGE = 8;
+
+    /**<p>
+     * container data values, sorted from lower to higher</br>
+     * equal values keep their ids in ascending order</br>
+     * </p>
+     */
+    private final long[] values;
+
+    /**
+     * ids[position] is the id holding values[position]
+     */
+    private final short[] ids;
+
+    /**
+     * the data as given, idOrderedValues[id] is the value held by id
+     */
+    private final long[] idOrderedValues;
+
+    /**
+     * prefixSums[position] is the sum of every value before position
+     */
+    private final long[] prefixSums;
+
+    /**
+     * locates the range boundaries in values
+     */
+    private final PositionSearch search;
+
+    /**
+     * equi-depth histogram of the values, built with the container
+     */
+    private final QuantileSketch quantileSketch;
+
+    /**
+     * the sorted positions of each distinct value, for exact matches</br>
+     * built on the first exact match, so containers never asked one, such as merged mutable mains, do not pay for it
+     */
+    private volatile ValueHashIndex valueIndex;
+
+    /**
+     *
+     * @param data the data to be contained in this container
+     */
+    public SortedArrayRangeQueryContainer(final long[] data) {
+        this(data, SearchStrategy.BINARY);
+    }
+
+    /**
+     *
+     * @param data the data to be contained in this container
+     * @param searchStrategy how range boundaries are located in the sorted values
+     */
+    public SortedArrayRangeQueryContainer(final long[] data, final SearchStrategy searchStrategy) {
+        this.idOrderedValues = Arrays.copyOf(data, data.length);
+        this.values = new long[data.length];
+        this.ids = sortByValue(data, this.values);
+        this.quantileSketch = QuantileSketch.fromSortedValues(this.values, QuantileSketch.DEFAULT_NUMBER_OF_BUCKETS);
+        this.prefixSums = new long[data.length + 1];
+        for (int position = 0; position < data.length; position++) {
+            this.prefixSums[position + 1] = this.prefixSums[position] + this.values[position];
+        }
+        this.search = searchStrategy.newSearch(this.values);
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        return getIds(getStartPosition(fromValue, toValue, fromInclusive), getEndPosition(fromValue, toValue, toInclusive));
+    }
+
+    @Override
+    public ValuePage findInValueOrder(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive,
+            final boolean descending, final int offset, final int limit) {
+        int startPosition = 0;
+        int endPosition = 0;
+        if (!isInValidInput(fromValue, toValue) && !isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+            endPosition = Math.max(startPosition, getEndPosition(fromValue, toValue, toInclusive));
+        }
+        final int pageSize = ValuePage.getPageSize(endPosition - startPosition, offset, limit);
+        final short[] ids = new short[pageSize];
+        final long[] pageValues = new long[pageSize];
+        for (int index = 0; index < pageSize; index++) {
+            final int position = descending ? endPosition - 1 - offset - index : startPosition + offset + index;
+            ids[index] = this.ids[position];
+            pageValues[index] = values[position];
+        }
+        return new ValuePage(ids, pageValues, offset + pageSize, offset + pageSize < endPosition - startPosition);
+    }
+
+    /**
+     * the matching ids are already in ascending order in the sorted positions of the value, and are returned without a copy
+     */
+    @Override
+    public Ids findIdsEqual(final long value) {
+        // an inclusive Long.MAX_VALUE bound is never matched by a range query, see ContainerHelper#getCorrectUpperRange
+        if (isInValidInput(value, value) || value == Long.MAX_VALUE) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        final ValueHashIndex valueIndex = getValueIndex();
+        final int slot = valueIndex.slotOf(value);
+        if (slot == ValueHashIndex.NO_SLOT) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        return new WorkerIds(ids, valueIndex.getStart(slot), valueIndex.getEnd(slot));
+    }
+
+    @Override
+    public long valueOf(final short id) {
+        if (id < 0 || id >= idOrderedValues.length) {
+            return NO_VALUE;
+        }
+        return idOrderedValues[id];
+    }
+
+    @Override
+    public QuantileSketch getQuantileSketch() {
+        return quantileSketch;
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        return Math.max(0, getEndPosition(fromValue, toValue, toInclusive) - getStartPosition(fromValue, toValue, fromInclusive));
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return 0;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        if (startPosition >= endPosition) {
+            return 0;
+        }
+        return prefixSums[endPosition] - prefixSums[startPosition];
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int startPosition = getStartPosition(fromValue, toValue, fromInclusive);
+        if (startPosition >= getEndPosition(fromValue, toValue, toInclusive)) {
+            return NO_VALUE;
+        }
+        return values[startPosition];
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        if (isInValidInput(fromValue, toValue) || isUnProcessibleQuery(fromValue, toValue, fromInclusive, toInclusive)) {
+            return NO_VALUE;
+        }
+        final int endPosition = getEndPosition(fromValue, toValue, toInclusive);
+        if (getStartPosition(fromValue, toValue, fromInclusive) >= endPosition) {
+            return NO_VALUE;
+        }
+        return values[endPosition - 1];
+    }
+
+    /**
+     * @return the first sorted position in range
+     */
+    private int getStartPosition(final long fromValue, final long toValue, final boolean fromInclusive) {
+        return search.firstPositionAbove(getCorrectLowerRange(fromValue, toValue, fromInclusive));
+    }
+
+    /**
+     * @return the sorted position after the last in range
+     */
+    private int getEndPosition(final long fromValue, final long toValue, final boolean toInclusive) {
+        return search.firstPositionAtOrAbove(getCorrectUpperRange(fromValue, toValue, toInclusive));
+    }
+
+    /**
+     * the index is immutable once built, so threads racing to build it each publish a complete one and any may be kept
+     * 
+     * @return the index of the sorted positions of each distinct value
+     */
+    private ValueHashIndex getValueIndex() {
+        ValueHashIndex index = valueIndex;
+        if (index == null) {
+            index = new ValueHashIndex(values);
+            valueIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * @param lowerRange exclusive lower range parameter, see {@link ContainerHelper#getCorrectLowerRange(long, long, boolean)}
+     * @return the first sorted position in range
+     */
+    int getPositionAbove(final long lowerRange) {
+        return search.firstPositionAbove(lowerRange);
+    }
+
+    /**
+     * @param upperRange exclusive upper range parameter, see {@link ContainerHelper#getCorrectUpperRange(long, long, boolean)}
+     * @return the sorted position after the last in range
+     */
+    int getPositionBelow(final long upperRange) {
+        return search.firstPositionAtOrAbove(upperRange);
+    }
+
+    /**
+     * @return the value at a sorted position
+     */
+    long getValueAt(final int position) {
+        return values[position];
+    }
+
+    /**
+     * @return the id at a sorted position
+     */
+    short getIdAt(final int position) {
+        return ids[position];
+    }
+
+    /**
+     * @return the value held by id
+     */
+    long getValueOf(final short id) {
+        return idOrderedValues[id];
+    }
+
+    /**
+     * @return the sum of the values between the sorted positions
+     */
+    long getSum(final int startPosition, final int endPosition) {
+        return prefixSums[endPosition] - prefixSums[startPosition];
+    }
+
+    /**
+     * @return the number of ids in this container
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**<p>
+     * ranges are reduced to the sorted, distinct value boundaries they share, and the positions of every boundary
+     * are found in one pass over the sorted values</br>
+     * when the ranges together cover a large share of the container the ids are then swept once in id order,
+     * each id is dealt to every range covering the segment between boundaries its value falls in,
+     * so ranges that overlap or touch share that work and every result comes out sorted</br>
+     * otherwise each range is collected from its own positions
+     * </p>
+     */
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        checkRanges(fromValues, toValues, fromInclusive, toInclusive);
+        final int numberOfRanges = fromValues.length;
+        final Ids[] result = new Ids[numberOfRanges];
+        // range n holds the values in [lowerBoundaries[n], upperBoundaries[n])
+        final long[] lowerBoundaries = new long[numberOfRanges];
+        final long[] upperBoundaries = new long[numberOfRanges];
+        final long[] boundaries = new long[2 * numberOfRanges];
+        int numberOfBoundaries = 0;
+        for (int range = 0; range < numberOfRanges; range++) {
+            final long lowerRange = getCorrectLowerRange(fromValues[range], toValues[range], fromInclusive[range]);
+            if (isInValidInput(fromValues[range], toValues[range]) || isUnProcessibleQuery(fromValues[range], toValues[range], fromInclusive[range], toInclusive[range])
+                    || lowerRange == Long.MAX_VALUE) {
+                result[range] = DEFAULT_IDS_OBJECT;
+                continue;
+            }
+            lowerBoundaries[range] = lowerRange + 1;
+            upperBoundaries[range] = getCorrectUpperRange(fromValues[range], toValues[range], toInclusive[range]);
+            boundaries[numberOfBoundaries++] = lowerBoundaries[range];
+            boundaries[numberOfBoundaries++] = upperBoundaries[range];
+        }
+        Arrays.sort(boundaries, 0, numberOfBoundaries);
+        numberOfBoundaries = removeDuplicates(boundaries, numberOfBoundaries);
+        final int[] boundaryPositions = new int[numberOfBoundaries];
+        int searchFrom = 0;
+        for (int boundary = 0; boundary < numberOfBoundaries; boundary++) {
+            searchFrom = firstPositionAtOrAbove(values, searchFrom, values.length, boundaries[boundary]);
+            boundaryPositions[boundary] = searchFrom;
+        }
+        // range n covers the segments between its boundary indexes [firstSegments[n], lastSegments[n])
+        final int[] firstSegments = new int[numberOfRanges];
+        final int[] lastSegments = new int[numberOfRanges];
+        long totalIds = 0;
+        for (int range = 0; range < numberOfRanges; range++) {
+            if (result[range] == null) {
+                firstSegments[range] = Arrays.binarySearch(boundaries, 0, numberOfBoundaries, lowerBoundaries[range]);
+                lastSegments[range] = Arrays.binarySearch(boundaries, 0, numberOfBoundaries, upperBoundaries[range]);
+                if (firstSegments[range] >= lastSegments[range]) {
+                    result[range] = DEFAULT_IDS_OBJECT;
+                } else {
+                    totalIds += boundaryPositions[lastSegments[range]] - boundaryPositions[firstSegments[range]];
+                }
+            }
+        }
+        if (totalIds * SWEEP_COVERAGE < values.length) {
+            for (int range = 0; range < numberOfRanges; range++) {
+                if (result[range] == null) {
+                    result[range] = getIds(boundaryPositions[firstSegments[range]], boundaryPositions[lastSegments[range]]);
+                }
+            }
+            return result;
+        }
+        sweepIds(result, boundaries, numberOfBoundaries, boundaryPositions, firstSegments, lastSegments);
+        return result;
+    }
+
+    /**
+     * fills every unanswered range in result by one pass over the ids in id order
+     *
+     * @param result
+     * @param boundaries sorted distinct range boundaries
+     * @param numberOfBoundaries
+     * @param boundaryPositions sorted position of each boundary
+     * @param firstSegments first segment covered by each range
+     * @param lastSegments segment after the last covered by each range
+     */
+    private void sweepIds(final Ids[] result, final long[] boundaries, final int numberOfBoundaries, final int[] boundaryPositions,
+            final int[] firstSegments, final int[] lastSegments) {
+        final int numberOfSegments = numberOfBoundaries - 1;
+        // the ranges covering segment n are segmentRanges[segmentStarts[n]] to segmentRanges[segmentStarts[n + 1] - 1]
+        final int[] segmentStarts = new int[numberOfSegments + 1];
+        for (int range = 0; range < result.length; range++) {
+            if (result[range] == null) {
+                for (int segment = firstSegments[range]; segment < lastSegments[range]; segment++) {
+                    segmentStarts[segment + 1]++;
+                }
+            }
+        }
+        for (int segment = 0; segment < numberOfSegments; segment++) {
+            segmentStarts[segment + 1] += segmentStarts[segment];
+        }
+        final int[] segmentRanges = new int[segmentStarts[numberOfSegments]];
+        final int[] filled = Arrays.copyOf(segmentStarts, numberOfSegments);
+        final short[][] rangeIds = new short[result.length][];
+        for (int range = 0; range < result.length; range++) {
+            if (result[range] == null) {
+                for (int segment = firstSegments[range]; segment < lastSegments[range]; segment++) {
+                    segmentRanges[filled[segment]++] = range;
+                }
+                rangeIds[range] = new short[boundaryPositions[lastSegments[range]] - boundaryPositions[firstSegments[range]]];
+            }
+        }
+        final int[] rangeSizes = new int[result.length];
+        for (int id = 0; id < idOrderedValues.length; id++) {
+            final int segment = firstPositionAbove(boundaries, 0, numberOfBoundaries, idOrderedValues[id]) - 1;
+            if (segment < 0 || segment >= numberOfSegments) {
+                continue;
+            }
+            for (int covering = segmentStarts[segment]; covering < segmentStarts[segment + 1]; covering++) {
+                final int range = segmentRanges[covering];
+                rangeIds[range][rangeSizes[range]++] = (short) id;
+            }
+        }
+        for (int range = 0; range < result.length; range++) {
+            if (result[range] == null) {
+                result[range] = new WorkerIds(rangeIds[range]);
+            }
+        }
+    }
+
+    /**
+     * @param startPosition
+     * @param endPosition
+     * @return the ids between the sorted positions
+     */
+    Ids getIds(final int startPosition, final int endPosition) {
+        if (startPosition >= endPosition) {
+            return DEFAULT_IDS_OBJECT;
+        }
+        if ((this.ids.length - (endPosition - startPosition)) * SCAN_MISS_RATE < this.ids.length) {
+            return new RangeScanWorkerIds(idOrderedValues, values[startPosition], values[endPosition - 1]);
+        }
+        if ((endPosition - startPosition) * BIT_SET_SELECTIVITY > this.ids.length) {
+            return new BitSetWorkerIds(getIdBitSet(startPosition, endPosition));
+        }
+        final short[] ids = Arrays.copyOfRange(this.ids, startPosition, endPosition);
+        Arrays.sort(ids);
+        return new WorkerIds(ids);
+    }
+
+    /**
+     * @param startPosition
+     * @param endPosition
+     * @return bit set of the ids between the sorted positions
+     */
+    private long[] getIdBitSet(final int startPosition, final int endPosition) {
+        final long[] bitSet = newIdBitSet(this.ids.length);
+        for (int position = startPosition; position < endPosition; position++) {
+            setId(bitSet, this.ids[position]);
+        }
+        return bitSet;
+    }
+
+    /**
+     * @param sortedValues
+     * @param size number of values in use
+     * @return the number of distinct values, now at the front of sortedValues
+     */
+    private static int removeDuplicates(final long[] sortedValues, final int size) {
+        int distinct = 0;
+        for (int index = 0; index < size; index++) {
+            if (distinct == 0 || sortedValues[distinct - 1] != sortedValues[index]) {
+                sortedValues[distinct++] = sortedValues[index];
+            }
+        }
+        return distinct;
+    }
+
+}
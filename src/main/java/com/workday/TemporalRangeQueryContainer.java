@@ -0,0 +1,364 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Arrays;
+
+/**<p>
+ * container holding worker net salary data for successive payroll periods, period 0 being the data it is built from</br>
+ * period 0 is held once in a sorted main structure shared by later periods; each later period is stored as the values
+ * that changed since the period before, kept per id as a history of (period, value) entries</br>
+ * so memory grows with the number of salary changes rather than with periods times workers</br>
+ * a query against a period overlays the main structure with the ids whose value differs from it as of that period,
+ * see {@link #asOf(int)}, and queries on this container itself read the latest period
+ * </p>
+ * <p>
+ * once more than 1 in {@link #REBASE_SHARE} ids of the latest period differ from the main structure, a new main structure
+ * is built from that period, and it serves that period and every later one until the next rebase</br>
+ * earlier periods keep the main structure they were overlaid on, so a view never overrides more ids than changed since its
+ * main structure, and a sorted structure is only added once that share of the ids changed
+ * </p>
+ * <p>
+ * periods are appended by one writer at a time, each append publishing a new immutable history,
+ * so queries read a consistent view without locking
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+public final class TemporalRangeQueryContainer implements RangeContainer {
+
+    /**
+     * value held by an id that is not in a period; a range can never match it
+     */
+    private static final long REMOVED = OverlaidRangeContainer.REMOVED;
+
+    /**
+     * default array of ids to return
+     */
+    private static final short[] DEFAULT_IDS_ARRAY = new short[0];
+
+    /**
+     * default Ids object to return
+     */
+    private static final Ids DEFAULT_IDS_OBJECT = new WorkerIds(DEFAULT_IDS_ARRAY);
+
+    /**
+     * the latest period is rebased once more than 1 in this many of its ids override the main structure
+     */
+    private static final int REBASE_SHARE = 8;
+
+    private volatile History history;
+
+    /**
+     * @param data the data of period 0
+     */
+    public TemporalRangeQueryContainer(final long[] data) {
+        final SortedArrayRangeQueryContainer base = new SortedArrayRangeQueryContainer(data);
+        this.history = new History(1, DEFAULT_IDS_ARRAY, new int[]{0}, new int[0], new long[0], new SortedArrayRangeQueryContainer[]{base},
+                new int[]{0}, new OverlaidRangeContainer(base, DEFAULT_IDS_ARRAY, new long[0]));
+    }
+
+    /**
+     * appends a period, storing only the ids whose value differs from the latest period; ids beyond data are not in the period
+     * 
+     * @param data the data of the new period
+     * @return the new period
+     */
+    public synchronized int addPeriod(final long[] data) {
+        final History current = history;
+        final int period = current.numberOfPeriods;
+        final int numberOfIds = Math.max(data.length, current.getNumberOfIds());
+        final short[] newIds = new short[numberOfIds];
+        final long[] newValues = new long[numberOfIds];
+        int changes = 0;
+        for (int id = 0; id < numberOfIds; id++) {
+            final long value = id < data.length ? data[id] : REMOVED;
+            if (value != current.valueOf((short) id, period - 1)) {
+                newIds[changes] = (short) id;
+                newValues[changes++] = value;
+            }
+        }
+        final History appended = current.withPeriod(newIds, newValues, changes);
+        history = appended.latest.getNumberOfOverrides() > numberOfIds / REBASE_SHARE ? appended.rebased(data) : appended;
+        return period;
+    }
+
+    /**
+     * @return the number of periods, period 0 included
+     */
+    public int getNumberOfPeriods() {
+        return history.numberOfPeriods;
+    }
+
+    /**
+     * @return the number of values stored for periods after period 0
+     */
+    public int getNumberOfChanges() {
+        return history.values.length;
+    }
+
+    /**
+     * @return the number of sorted main structures held, one for period 0 and one per rebase
+     */
+    int getNumberOfBases() {
+        return history.bases.length;
+    }
+
+    /**
+     * @param period
+     * @return a view of this container as of period, costing memory per id changed since the main structure it overlays
+     * @throws IllegalArgumentException when period is not in this container
+     */
+    public RangeContainer asOf(final int period) {
+        final History current = history;
+        checkPeriod(current, period);
+        return period == current.numberOfPeriods - 1 ? current.latest : current.getView(period);
+    }
+
+    /**
+     * @return the ids {@link #asOf(int)} period would return
+     */
+    public Ids findIdsInRange(final int period, final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return asOf(period).findIdsInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    /**
+     * @param id
+     * @param period
+     * @return the value id holds as of period, or {@link #NO_VALUE} when id is not in the period
+     * @throws IllegalArgumentException when period is not in this container
+     */
+    public long valueOf(final short id, final int period) {
+        final History current = history;
+        checkPeriod(current, period);
+        if (id < 0) {
+            return NO_VALUE;
+        }
+        final long value = current.valueOf(id, period);
+        return value == REMOVED ? NO_VALUE : value;
+    }
+
+    /**
+     * @param fromPeriod
+     * @param toPeriod
+     * @return the ids, ascending, whose value as of fromPeriod differs from their value as of toPeriod,
+     * including ids in one period and not the other
+     * @throws IllegalArgumentException when either period is not in this container
+     */
+    public Ids findIdsChangedBetween(final int fromPeriod, final int toPeriod) {
+        final History current = history;
+        checkPeriod(current, fromPeriod);
+        checkPeriod(current, toPeriod);
+        // only ids with a history can differ between periods
+        final short[] ids = new short[current.changedIds.length];
+        int size = 0;
+        for (final short id : current.changedIds) {
+            if (current.valueOf(id, fromPeriod) != current.valueOf(id, toPeriod)) {
+                ids[size++] = id;
+            }
+        }
+        return size == 0 ? DEFAULT_IDS_OBJECT : new WorkerIds(Arrays.copyOf(ids, size));
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return history.latest.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return history.latest.countInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return history.latest.sumInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return history.latest.minInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return history.latest.maxInRange(fromValue, toValue, fromInclusive, toInclusive);
+    }
+
+    private static void checkPeriod(final History history, final int period) {
+        if (period < 0 || period >= history.numberOfPeriods) {
+            throw new IllegalArgumentException("period out of range: " + period);
+        }
+    }
+
+    /**
+     * the values changed after period 0, never changed once published
+     */
+    private static final class History {
+
+        private final int numberOfPeriods;
+
+        /**
+         * ids changed in any period after period 0, ascending
+         */
+        private final short[] changedIds;
+
+        /**
+         * the history of changedIds[index] is the entries historyStarts[index] to historyStarts[index + 1] - 1, periods ascending
+         */
+        private final int[] historyStarts;
+
+        /**
+         * periods[entry] is the period from which the id of entry holds values[entry]
+         */
+        private final int[] periods;
+
+        private final long[] values;
+
+        /**
+         * main structures, bases[0] holding period 0 and bases[index] holding period basePeriods[index], periods ascending
+         */
+        private final SortedArrayRangeQueryContainer[] bases;
+
+        private final int[] basePeriods;
+
+        /**
+         * view of the latest period, kept as it is the one queried most
+         */
+        private final OverlaidRangeContainer latest;
+
+        History(final int numberOfPeriods, final short[] changedIds, final int[] historyStarts, final int[] periods, final long[] values,
+                final SortedArrayRangeQueryContainer[] bases, final int[] basePeriods, final OverlaidRangeContainer latest) {
+            this.numberOfPeriods = numberOfPeriods;
+            this.changedIds = changedIds;
+            this.historyStarts = historyStarts;
+            this.periods = periods;
+            this.values = values;
+            this.bases = bases;
+            this.basePeriods = basePeriods;
+            this.latest = latest;
+        }
+
+        /**
+         * @return the number of ids in any period so far
+         */
+        int getNumberOfIds() {
+            return Math.max(bases[0].size(), changedIds.length == 0 ? 0 : changedIds[changedIds.length - 1] + 1);
+        }
+
+        /**
+         * @return the value id holds as of period, or REMOVED
+         */
+        long valueOf(final short id, final int period) {
+            final long baseValue = getBaseValue(bases[0], id);
+            final int index = Arrays.binarySearch(changedIds, id);
+            if (index < 0) {
+                return baseValue;
+            }
+            // the last entry from a period at or before period
+            final int entry = Arrays.binarySearch(periods, historyStarts[index], historyStarts[index + 1], period);
+            final int last = entry >= 0 ? entry : -(entry + 1) - 1;
+            return last < historyStarts[index] ? baseValue : values[last];
+        }
+
+        /**
+         * @return the latest main structure built at or before period, overridden by every id whose value as of period differs from it
+         */
+        OverlaidRangeContainer getView(final int period) {
+            final int index = Arrays.binarySearch(basePeriods, period);
+            final SortedArrayRangeQueryContainer base = bases[index >= 0 ? index : -(index + 1) - 1];
+            // only ids with a history can differ from a main structure
+            final short[] ids = new short[changedIds.length];
+            final long[] overrideValues = new long[changedIds.length];
+            int size = 0;
+            for (final short id : changedIds) {
+                final long value = valueOf(id, period);
+                if (value != getBaseValue(base, id)) {
+                    ids[size] = id;
+                    overrideValues[size++] = value;
+                }
+            }
+            return new OverlaidRangeContainer(base, Arrays.copyOf(ids, size), Arrays.copyOf(overrideValues, size));
+        }
+
+        /**
+         * @param newIds ids changed in the new period, ascending
+         * @param newValues the value of each id from the new period
+         * @param numberOfChanges number of newIds in use
+         * @return a copy of this history with a period appended
+         */
+        History withPeriod(final short[] newIds, final long[] newValues, final int numberOfChanges) {
+            final short[] mergedIds = new short[changedIds.length + numberOfChanges];
+            final int[] mergedStarts = new int[mergedIds.length + 1];
+            final int[] mergedPeriods = new int[periods.length + numberOfChanges];
+            final long[] mergedValues = new long[values.length + numberOfChanges];
+            int size = 0;
+            int entries = 0;
+            int changed = 0;
+            int added = 0;
+            while (changed < changedIds.length || added < numberOfChanges) {
+                final boolean takeChanged = added == numberOfChanges || (changed < changedIds.length && changedIds[changed] <= newIds[added]);
+                final short id = takeChanged ? changedIds[changed] : newIds[added];
+                if (takeChanged) {
+                    final int length = historyStarts[changed + 1] - historyStarts[changed];
+                    System.arraycopy(periods, historyStarts[changed], mergedPeriods, entries, length);
+                    System.arraycopy(values, historyStarts[changed], mergedValues, entries, length);
+                    entries += length;
+                    changed++;
+                }
+                if (added < numberOfChanges && newIds[added] == id) {
+                    mergedPeriods[entries] = numberOfPeriods;
+                    mergedValues[entries++] = newValues[added++];
+                }
+                mergedIds[size++] = id;
+                mergedStarts[size] = entries;
+            }
+            final History appended = new History(numberOfPeriods + 1, Arrays.copyOf(mergedIds, size), Arrays.copyOf(mergedStarts, size + 1),
+                    mergedPeriods, mergedValues, bases, basePeriods, null);
+            return new History(appended.numberOfPeriods, appended.changedIds, appended.historyStarts, mergedPeriods, mergedValues,
+                    bases, basePeriods, appended.getView(numberOfPeriods));
+        }
+
+        /**
+         * @param data the data of the latest period
+         * @return a copy of this history with a main structure built from the latest period, which it views with no overrides
+         */
+        History rebased(final long[] data) {
+            final SortedArrayRangeQueryContainer base = new SortedArrayRangeQueryContainer(data);
+            final SortedArrayRangeQueryContainer[] rebasedBases = Arrays.copyOf(bases, bases.length + 1);
+            final int[] rebasedPeriods = Arrays.copyOf(basePeriods, basePeriods.length + 1);
+            rebasedBases[bases.length] = base;
+            rebasedPeriods[basePeriods.length] = numberOfPeriods - 1;
+            return new History(numberOfPeriods, changedIds, historyStarts, periods, values, rebasedBases, rebasedPeriods,
+                    new OverlaidRangeContainer(base, DEFAULT_IDS_ARRAY, new long[0]));
+        }
+
+        /**
+         * @return the value base holds for id, or REMOVED
+         */
+        private static long getBaseValue(final SortedArrayRangeQueryContainer base, final short id) {
+            return id < base.size() ? base.getValueOf(id) : REMOVED;
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**<p>
+ * open addressing hash index from each distinct value of a sorted column to the positions holding it</br>
+ * linear probing over primitive arrays, sized to at most half full so probes stay short</br>
+ * a lookup neither boxes nor allocates
+ * </p>
+ * 
+ * @author eiathom
+ *
+ */
+final class ValueHashIndex {
+
+    /**
+     * returned by {@link #slotOf(long)} when the value is not in the index
+     */
+    static final int NO_SLOT = -1;
+
+    private final long[] keys;
+
+    /**
+     * starts[slot] is the first position holding keys[slot], 0 for an empty slot
+     */
+    private final int[] starts;
+
+    /**
+     * ends[slot] is the position after the last holding keys[slot], 0 for an empty slot
+     */
+    private final int[] ends;
+
+    private final int mask;
+
+    /**
+     * @param sortedValues column of values, sorted from lower to higher
+     */
+    ValueHashIndex(final long[] sortedValues) {
+        int distinct = 0;
+        for (int position = 0; position < sortedValues.length; position++) {
+            if (position == 0 || sortedValues[position] != sortedValues[position - 1]) {
+                distinct++;
+            }
+        }
+        // the power of two at or above twice the distinct values
+        final int capacity = Integer.highestOneBit(Math.max(1, distinct * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.mask = capacity - 1;
+        int start = 0;
+        for (int position = 1; position <= sortedValues.length; position++) {
+            if (position == sortedValues.length || sortedValues[position] != sortedValues[start]) {
+                int slot = hash(sortedValues[start]) & mask;
+                while (ends[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = sortedValues[start];
+                starts[slot] = start;
+                ends[slot] = position;
+                start = position;
+            }
+        }
+    }
+
+    /**
+     * @param value
+     * @return the slot of value, or {@link #NO_SLOT} when no position holds value
+     */
+    int slotOf(final long value) {
+        int slot = hash(value) & mask;
+        while (ends[slot] != 0) {
+            if (keys[slot] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_SLOT;
+    }
+
+    /**
+     * @return the first position holding the value in slot
+     */
+    int getStart(final int slot) {
+        return starts[slot];
+    }
+
+    /**
+     * @return the position after the last holding the value in slot
+     */
+    int getEnd(final int slot) {
+        return ends[slot];
+    }
+
+    /**
+     * spreads the high bits of value to the low bits used for the slot, salary values differ mostly in their low bits
+     */
+    private static int hash(final long value) {
+        long mixed = value * 0x9E3779B97F4A7C15L;
+        mixed ^= mixed >>> 32;
+        return (int) (mixed ^ mixed >>> 16);
+    }
+
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * a container able to page through a range in value order, reading its value ordered structure directly
+ * 
+ * @author eiathom
+ * 
+ */
+public interface ValueOrderedRangeContainer extends RangeContainer {
+
+    /**<p>
+     * a page of the (id, value) pairs in range, ordered by value, equal values ordered by id in the same direction</br>
+     * page n of size k is found at offset n * k, and each page tells the offset of the next,
+     * the cost of a page is proportional to its limit, not to the size of the range
+     * </p>
+     * 
+     * @param descending whether to start from the highest value in range
+     * @param offset number of pairs in range to skip, 0 for the first page
+     * @param limit most pairs to return
+     * @return the page, empty when offset is past the end of the range
+     * @throws IllegalArgumentException when offset or limit is negative
+     */
+    ValuePage findInValueOrder(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive,
+            final boolean descending, final int offset, final int limit);
+
+}
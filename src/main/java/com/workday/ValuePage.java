@@ -0,0 +1,98 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+/**
+ * a page of (id, value) pairs in value order, see {@link ValueOrderedRangeContainer#findInValueOrder(long, long, boolean, boolean, boolean, int, int)}
+ * 
+ * @author eiathom
+ *
+ */
+public final class ValuePage {
+
+    private final short[] ids;
+
+    private final long[] values;
+
+    private final int nextOffset;
+
+    private final boolean hasMore;
+
+    /**
+     * @param ids ids of the page, in order
+     * @param values values held by ids
+     * @param nextOffset offset of the page after this one
+     * @param hasMore whether any pair in range follows this page
+     */
+    ValuePage(final short[] ids, final long[] values, final int nextOffset, final boolean hasMore) {
+        this.ids = ids;
+        this.values = values;
+        this.nextOffset = nextOffset;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * @param numberInRange number of pairs in range
+     * @param offset requested offset
+     * @param limit requested limit
+     * @return the number of pairs on the page
+     * @throws IllegalArgumentException when offset or limit is negative
+     */
+    static int getPageSize(final int numberInRange, final int offset, final int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+        return Math.max(0, Math.min(limit, numberInRange - offset));
+    }
+
+    /**
+     * @return the number of pairs on this page
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param index from 0 to size() - 1
+     * @return the id of the index'th pair
+     */
+    public short getId(final int index) {
+        return ids[index];
+    }
+
+    /**
+     * @param index from 0 to size() - 1
+     * @return the value of the index'th pair
+     */
+    public long getValue(final int index) {
+        return values[index];
+    }
+
+    /**
+     * @return the offset to pass for the page after this one
+     */
+    public int getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * @return whether any pair in range follows this page
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+}
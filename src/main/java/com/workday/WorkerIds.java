@@ -19,25 +19,56 @@ package com.workday;
  * @author eiathom
  *
  */
-public class WorkerIds implements Ids {
+public class WorkerIds implements SizedIds {
 
     private final short[] ids;
 
     private int idsArrayIndex;
 
+    /**
+     * index after the last id returned
+     */
+    private final int endIndex;
+
     /**
      * @param ids worker ids
      */
     public WorkerIds(final short[] ids) {
+        this(ids, 0, ids.length);
+    }
+
+    /**
+     * view over part of an array of ids, the array is neither copied nor changed
+     * 
+     * @param ids worker ids
+     * @param fromIndex index of the first id returned
+     * @param toIndex index after the last id returned
+     */
+    public WorkerIds(final short[] ids, final int fromIndex, final int toIndex) {
         this.ids = ids;
+        this.idsArrayIndex = fromIndex;
+        this.endIndex = toIndex;
     }
 
     @Override
     public short nextId() {
-        while (idsArrayIndex < ids.length) {
+        while (idsArrayIndex < endIndex) {
             return ids[idsArrayIndex++];
         }
         return Ids.END_OF_IDS;
     }
 
+    @Override
+    public int nextIds(final short[] buffer) {
+        final int count = Math.min(buffer.length, endIndex - idsArrayIndex);
+        System.arraycopy(ids, idsArrayIndex, buffer, 0, count);
+        idsArrayIndex += count;
+        return count;
+    }
+
+    @Override
+    public int remaining() {
+        return endIndex - idsArrayIndex;
+    }
+
 }
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class AdaptiveRangeQueryContainerFactoryTest {
+
+    private static final int NUMBER_OF_WORKERS = 30000;
+
+    private final AdaptiveRangeQueryContainerFactory factory = new AdaptiveRangeQueryContainerFactory();
+
+    @Test
+    public void chooseLayout_narrowDuplicatedSkewedAndWideData_expectTheLayoutSuitingEach() {
+        final long[] narrow = new long[NUMBER_OF_WORKERS];
+        final long[] duplicated = new long[NUMBER_OF_WORKERS];
+        final long[] skewed = new long[NUMBER_OF_WORKERS];
+        final long[] wide = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < NUMBER_OF_WORKERS; id++) {
+            narrow[id] = ThreadLocalRandom.current().nextLong(50000, 60000);
+            duplicated[id] = 1000 + ThreadLocalRandom.current().nextInt(100) * 740;
+            skewed[id] = id % 2 == 0 ? 52000 : ThreadLocalRandom.current().nextLong(1000, 1000000);
+            wide[id] = ThreadLocalRandom.current().nextLong(1000, 1000000);
+        }
+        assertEquals(ContainerLayout.DENSE_BUCKETS, factory.chooseLayout(DataStatistics.of(narrow)));
+        assertEquals(ContainerLayout.POSTING_LISTS, factory.chooseLayout(DataStatistics.of(duplicated)));
+        assertEquals(ContainerLayout.POSTING_LISTS, factory.chooseLayout(DataStatistics.of(skewed)));
+        assertEquals(ContainerLayout.SORTED_ARRAY, factory.chooseLayout(DataStatistics.of(wide)));
+        assertEquals(ContainerLayout.SORTED_ARRAY, factory.chooseLayout(DataStatistics.of(new long[0])));
+    }
+
+    @Test
+    public void dataStatistics_duplicatedValues_expectSizeDistinctSpanAndSkew() {
+        final DataStatistics statistics = DataStatistics.of(new long[]{5, 9, 5, 5, 7, 9});
+        assertEquals(6, statistics.getSize());
+        assertEquals(3, statistics.getDistinctCount());
+        assertEquals(5, statistics.getMinimum());
+        assertEquals(9, statistics.getMaximum());
+        assertEquals(4, statistics.getSpan());
+        assertEquals(3, statistics.getLargestDuplicateCount());
+        assertEquals(1.5, statistics.getSkew(), 0);
+        assertEquals(Long.MAX_VALUE, DataStatistics.of(new long[]{Long.MIN_VALUE, Long.MAX_VALUE}).getSpan());
+    }
+
+    @Test
+    public void runARangeQuery_overDenseBuckets_expectSameResultsAsASortedArray() {
+        final long[] data = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < NUMBER_OF_WORKERS; id++) {
+            data[id] = ThreadLocalRandom.current().nextLong(50000, 60000);
+        }
+        final RangeContainer expected = new SortedArrayRangeQueryContainer(data);
+        final RangeContainer actual = new DenseBucketRangeQueryContainer(data);
+        for (int query = 0; query < 200; query++) {
+            final long fromValue = ThreadLocalRandom.current().nextLong(49000, 61000);
+            final long toValue = query % 4 == 0 ? fromValue : ThreadLocalRandom.current().nextLong(49000, 61000);
+            final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+            final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+            assertArrayEquals(ContainerHelper.toArray(expected.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)),
+                    ContainerHelper.toArray(actual.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)));
+            assertEquals(expected.countInRange(fromValue, toValue, fromInclusive, toInclusive), actual.countInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.sumInRange(fromValue, toValue, fromInclusive, toInclusive), actual.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.minInRange(fromValue, toValue, fromInclusive, toInclusive), actual.minInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.maxInRange(fromValue, toValue, fromInclusive, toInclusive), actual.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createDenseBuckets_valuesSpanningEveryLong_expectRejected() {
+        new DenseBucketRangeQueryContainer(new long[]{Long.MIN_VALUE, Long.MAX_VALUE});
+    }
+
+}
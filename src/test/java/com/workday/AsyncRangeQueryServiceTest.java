@@ -0,0 +1,104 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class AsyncRangeQueryServiceTest {
+
+    private static final long[] DATA = new long[]{10, 12, 17, 21, 2, 15, 16};
+
+    private final ExecutorService executor = AsyncRangeQueryService.newVirtualThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void runARangeQuery_manyTimesWhileTheFirstIsInFlight_expectOneComputationAndEveryCallerAnswered() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger computations = new AtomicInteger();
+        final RangeContainer sortedArray = new SortedArrayRangeQueryContainer(DATA);
+        final RangeContainer blocking = new RangeContainer() {
+            @Override
+            public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                computations.incrementAndGet();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return sortedArray.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+                return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                return sortedArray.countInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                return sortedArray.sumInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                return sortedArray.minInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                return sortedArray.maxInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+        };
+        final AsyncRangeQueryService service = new AsyncRangeQueryService(blocking, executor);
+        final List<CompletableFuture<Ids>> results = new ArrayList<>();
+        for (int request = 0; request < 50; request++) {
+            results.add(request % 2 == 0 ? service.findIdsInRange(14, 17, true, true) : service.findIdsInRange(18, 13, false, false));
+        }
+        release.countDown();
+        for (final CompletableFuture<Ids> result : results) {
+            assertArrayEquals(new short[]{2, 5, 6}, BruteForceRangeContainer.drain(result.get()));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(49, service.getCoalescedCount());
+        assertArrayEquals(new short[]{2, 5, 6}, BruteForceRangeContainer.drain(service.findIdsInRange(14, 17, true, true).get()));
+        assertEquals(2, computations.get());
+        assertEquals(Integer.valueOf(4), service.countInRange(10, 16, true, true).get());
+    }
+
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import java.util.Arrays;
+
+/**
+ * reference container answering every query with a full scan, used to check the real containers
+ * 
+ * @author eiathom
+ *
+ */
+public final class BruteForceRangeContainer implements RangeContainer {
+
+    private final long[] data;
+
+    public BruteForceRangeContainer(final long[] data) {
+        this.data = data;
+    }
+
+    @Override
+    public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return new WorkerIds(scan(fromValue, toValue, fromInclusive, toInclusive));
+    }
+
+    @Override
+    public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+    }
+
+    @Override
+    public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        return scan(fromValue, toValue, fromInclusive, toInclusive).length;
+    }
+
+    @Override
+    public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long sum = 0;
+        for (final short id : scan(fromValue, toValue, fromInclusive, toInclusive)) {
+            sum += data[id];
+        }
+        return sum;
+    }
+
+    @Override
+    public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long min = NO_VALUE;
+        for (final short id : scan(fromValue, toValue, fromInclusive, toInclusive)) {
+            min = min == NO_VALUE ? data[id] : Math.min(min, data[id]);
+        }
+        return min;
+    }
+
+    @Override
+    public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        long max = NO_VALUE;
+        for (final short id : scan(fromValue, toValue, fromInclusive, toInclusive)) {
+            max = Math.max(max, data[id]);
+        }
+        return max;
+    }
+
+    /**
+     * @return the matching ids in ascending order
+     */
+    public short[] scan(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final short[] ids = new short[data.length];
+        int size = 0;
+        if ((fromValue < 0 && toValue < 0) || (fromValue == toValue && (!fromInclusive || !toInclusive))) {
+            return Arrays.copyOf(ids, size);
+        }
+        final long lowerValue = Math.min(fromValue, toValue);
+        final long upperValue = Math.max(fromValue, toValue);
+        for (int id = 0; id < data.length; id++) {
+            final long value = data[id];
+            final boolean aboveLower = fromInclusive ? value >= lowerValue : value > lowerValue;
+            final boolean belowUpper = toInclusive ? value <= upperValue : value < upperValue;
+            if (aboveLower && belowUpper) {
+                ids[size++] = (short) id;
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * @param ids
+     * @return all remaining ids drained from ids
+     */
+    public static short[] drain(final Ids ids) {
+        short[] array = new short[16];
+        int size = 0;
+        short id;
+        while ((id = ids.nextId()) != Ids.END_OF_IDS) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = id;
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+}
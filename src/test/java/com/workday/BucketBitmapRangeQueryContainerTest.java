@@ -0,0 +1,76 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class BucketBitmapRangeQueryContainerTest {
+
+    private static final int NUMBER_OF_WORKERS = 30000;
+
+    @Test
+    public void runARangeQuery_withAnyNumberOfBuckets_expectSameResultsAsASortedArray() {
+        final long[] data = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < data.length; id++) {
+            // duplicated values straddle bucket edges
+            data[id] = 1000 + ThreadLocalRandom.current().nextInt(3000) * 24;
+        }
+        final RangeContainer expected = new SortedArrayRangeQueryContainer(data);
+        for (final int numberOfBuckets : new int[]{1, 7, BucketBitmapRangeQueryContainer.DEFAULT_NUMBER_OF_BUCKETS, 1000}) {
+            final RangeContainer actual = new BucketBitmapRangeQueryContainer(data, numberOfBuckets);
+            assertQuery(expected, actual, 0, 1000000, true, true);
+            assertQuery(expected, actual, 1000, 73000, true, false);
+            for (int query = 0; query < 100; query++) {
+                final long fromValue = ThreadLocalRandom.current().nextLong(0, 75000);
+                final long toValue = ThreadLocalRandom.current().nextLong(0, 75000);
+                assertQuery(expected, actual, fromValue, toValue, ThreadLocalRandom.current().nextBoolean(), ThreadLocalRandom.current().nextBoolean());
+            }
+        }
+    }
+
+    @Test
+    public void runARangeQuery_overFewerIdsThanBuckets_expectSameResultsAsASortedArray() {
+        final long[] data = {10, 12, 17, 21, 2, 15, 16};
+        final RangeContainer expected = new SortedArrayRangeQueryContainer(data);
+        final RangeContainer actual = new BucketBitmapRangeQueryContainer(data);
+        for (long fromValue = 0; fromValue < 23; fromValue++) {
+            for (long toValue = fromValue; toValue < 23; toValue++) {
+                assertQuery(expected, actual, fromValue, toValue, true, false);
+            }
+        }
+        assertEquals(0, ContainerHelper.toArray(new BucketBitmapRangeQueryContainer(new long[0]).findIdsInRange(0, 10, true, true)).length);
+    }
+
+    private static void assertQuery(final RangeContainer expected, final RangeContainer actual, final long fromValue, final long toValue,
+            final boolean fromInclusive, final boolean toInclusive) {
+        assertArrayEquals(ContainerHelper.toArray(expected.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)),
+                ContainerHelper.toArray(actual.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)));
+        assertEquals(expected.countInRange(fromValue, toValue, fromInclusive, toInclusive), actual.countInRange(fromValue, toValue, fromInclusive, toInclusive));
+        assertEquals(expected.sumInRange(fromValue, toValue, fromInclusive, toInclusive), actual.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+        assertEquals(expected.minInRange(fromValue, toValue, fromInclusive, toInclusive), actual.minInRange(fromValue, toValue, fromInclusive, toInclusive));
+        assertEquals(expected.maxInRange(fromValue, toValue, fromInclusive, toInclusive), actual.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+    }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class CachingRangeContainerTest {
+
+    private static final long[] DATA = new long[]{10, 12, 17, 21, 2, 15, 16};
+
+    @Test
+    public void runARangeQuery_withEquivalentInclusiveAndExclusiveBounds_expectOneSharedEntry() {
+        final CachingRangeContainer container = new CachingRangeContainer(new SortedArrayRangeQueryContainer(DATA));
+        assertArrayEquals(new short[]{2, 5, 6}, BruteForceRangeContainer.drain(container.findIdsInRange(14, 17, true, true)));
+        assertArrayEquals(new short[]{2, 5, 6}, BruteForceRangeContainer.drain(container.findIdsInRange(18, 13, false, false)));
+        assertEquals(1, container.getMissCount());
+        assertEquals(1, container.getHitCount());
+    }
+
+    @Test
+    public void runARangeQuery_readingTwoHitsInTurn_expectEachHitToStartFromTheFirstId() {
+        final CachingRangeContainer container = new CachingRangeContainer(new SortedArrayRangeQueryContainer(DATA));
+        final Ids first = container.findIdsInRange(14, 17, true, true);
+        assertEquals(2, first.nextId());
+        final Ids second = container.findIdsInRange(14, 17, true, true);
+        assertEquals(2, second.nextId());
+        assertEquals(5, first.nextId());
+        assertEquals(5, second.nextId());
+    }
+
+    @Test
+    public void runRangeQueries_beyondTheMemoryBound_expectLeastRecentlyUsedEvicted() {
+        final CachingRangeContainer container = new CachingRangeContainer(new SortedArrayRangeQueryContainer(DATA), 250);
+        container.findIdsInRange(0, 11, true, true);
+        container.findIdsInRange(12, 17, true, true);
+        container.findIdsInRange(0, 11, true, true);
+        container.findIdsInRange(20, 30, true, true);
+        assertEquals(1, container.getEvictionCount());
+        assertTrue(container.getCachedBytes() <= 250);
+        container.findIdsInRange(0, 11, true, true);
+        assertEquals(2, container.getHitCount());
+        container.findIdsInRange(12, 17, true, true);
+        assertEquals(4, container.getMissCount());
+    }
+
+}
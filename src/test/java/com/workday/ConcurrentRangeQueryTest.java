@@ -0,0 +1,119 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * many threads query one container at once, every result is checked against a full scan
+ * 
+ * @author eiathom
+ *
+ */
+@RunWith(Parameterized.class)
+public class ConcurrentRangeQueryTest {
+
+    private static final int NUMBER_OF_WORKERS = 32000;
+
+    private static final int MAXIMUM_NET_SALARY = 75000;
+
+    private static final int MINIMUM_NET_SALARY = 1000;
+
+    private static final int NUMBER_OF_THREADS = 15;
+
+    private static final int QUERIES_PER_THREAD = 100;
+
+    private final RangeQueryContainerFactory factory;
+
+    public ConcurrentRangeQueryTest(final String name, final RangeQueryContainerFactory factory) {
+        this.factory = factory;
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> factories() {
+        return Arrays.asList(new Object[][] {
+            { "skip list", new NetRangeQueryContainerFactory() },
+            { "sorted array", new SortedArrayRangeQueryContainerFactory() },
+            { "posting list", new PostingListRangeQueryContainerFactory() }
+        });
+    }
+
+    @Test
+    public void queryConcurrently_expectEveryResultToMatchAFullScan() throws Exception {
+        final long[] data = getRandomData(NUMBER_OF_WORKERS);
+        final RangeContainer container = factory.createContainer(data);
+        final BruteForceRangeContainer expected = new BruteForceRangeContainer(data);
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        try {
+            final List<Future<Void>> results = new ArrayList<>();
+            for (int thread = 0; thread < NUMBER_OF_THREADS; thread++) {
+                results.add(executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        startSignal.await();
+                        runQueries(container, expected);
+                        return null;
+                    }
+                }));
+            }
+            startSignal.countDown();
+            for (final Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void runQueries(final RangeContainer container, final BruteForceRangeContainer expected) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int query = 0; query < QUERIES_PER_THREAD; query++) {
+            final long fromValue = random.nextLong(-10, MAXIMUM_NET_SALARY + 10);
+            final long toValue = random.nextInt(10) == 0 ? fromValue : random.nextLong(-10, MAXIMUM_NET_SALARY + 10);
+            final boolean fromInclusive = random.nextBoolean();
+            final boolean toInclusive = random.nextBoolean();
+            final short[] actualIds = BruteForceRangeContainer.drain(container.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive));
+            final short[] expectedIds = expected.scan(fromValue, toValue, fromInclusive, toInclusive);
+            assertArrayEquals(fromValue + ", " + toValue + ", " + fromInclusive + ", " + toInclusive, expectedIds, actualIds);
+        }
+    }
+
+    private static long[] getRandomData(final int numberOfWorkers) {
+        final long[] data = new long[numberOfWorkers];
+        for (int index = 0; index < numberOfWorkers; index++) {
+            data[index] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+        }
+        return data;
+    }
+
+}
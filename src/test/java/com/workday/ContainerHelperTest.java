@@ -0,0 +1,55 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class ContainerHelperTest {
+
+    @Test
+    public void sortByValue_narrowDuplicatedAndWideSpreads_expectSameOrderAsAComparisonSort() {
+        final long[] narrow = new long[32000];
+        final long[] duplicated = new long[32000];
+        final long[] wide = new long[32000];
+        // spreads at the limit of a packed key, below and above the radix sort threshold
+        final long[] widestPacked = new long[32000];
+        for (int id = 0; id < narrow.length; id++) {
+            narrow[id] = ThreadLocalRandom.current().nextLong(1000, 75000);
+            duplicated[id] = 1000 + ThreadLocalRandom.current().nextInt(50) * 1480;
+            wide[id] = ThreadLocalRandom.current().nextLong();
+            widestPacked[id] = ThreadLocalRandom.current().nextLong(1L << 47);
+        }
+        for (final long[] data : new long[][]{narrow, duplicated, wide, Arrays.copyOf(narrow, 100), {}, {-5, 7, -5},
+                {0, 1L << 47, 5}, {0, (1L << 47) - 1, 5}, {-1, (1L << 47) - 2, 5}, widestPacked}) {
+            final long[] expectedValues = Arrays.copyOf(data, data.length);
+            Arrays.sort(expectedValues);
+            final long[] sortedValues = new long[data.length];
+            final short[] ids = ContainerHelper.sortByValue(data, sortedValues);
+            assertArrayEquals(expectedValues, sortedValues);
+            assertArrayEquals(ContainerHelper.getIdsInValueOrder(data, expectedValues), ids);
+        }
+    }
+
+}
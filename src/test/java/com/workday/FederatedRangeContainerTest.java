@@ -0,0 +1,195 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class FederatedRangeContainerTest {
+
+    private static final int WORKERS_PER_CHILD = 20000;
+
+    private static final int[] OFFSETS = { 50000, 0, 25000 };
+
+    private static final int MAXIMUM_NET_SALARY = 75000;
+
+    private static final int MINIMUM_NET_SALARY = 1000;
+
+    @Test
+    public void runARangeQuery_overChildrenGivenOutOfOrder_expectAscendingIdsFromEveryChild() {
+        final long[][] childData = getRandomChildData();
+        final RangeContainer[] children = new RangeContainer[OFFSETS.length];
+        for (int child = 0; child < children.length; child++) {
+            children[child] = new SortedArrayRangeQueryContainer(childData[child]);
+        }
+        final IntRangeContainer container = new FederatedRangeContainer(children, OFFSETS);
+        for (int query = 0; query < 20; query++) {
+            final long fromValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+            final long toValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+            final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+            final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+            final int[] expectedIds = scan(childData, fromValue, toValue, fromInclusive, toInclusive);
+            assertArrayEquals(expectedIds, drain(container.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive), Integer.MAX_VALUE));
+            assertEquals(expectedIds.length, container.countInRange(fromValue, toValue, fromInclusive, toInclusive));
+            long sum = 0;
+            long min = IntRangeContainer.NO_VALUE;
+            long max = IntRangeContainer.NO_VALUE;
+            for (final int id : expectedIds) {
+                final long value = valueOf(childData, id);
+                sum += value;
+                min = min == IntRangeContainer.NO_VALUE ? value : Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            assertEquals(sum, container.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(min, container.minInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(max, container.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+        }
+    }
+
+    @Test
+    public void runARangeQuery_withASlowChild_expectIdsBelowItsOffsetBeforeItCompletes() throws InterruptedException {
+        final long[][] childData = getRandomChildData();
+        final CountDownLatch release = new CountDownLatch(1);
+        final RangeContainer[] children = new RangeContainer[OFFSETS.length];
+        for (int child = 0; child < children.length; child++) {
+            children[child] = new SortedArrayRangeQueryContainer(childData[child]);
+        }
+        // the child of highest offset waits for the latch before answering
+        final RangeContainer slowChild = children[0];
+        children[0] = new RangeContainer() {
+
+            @Override
+            public Ids findIdsInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return slowChild.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public Ids[] findIdsInRanges(final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+                return ContainerHelper.findIdsInRanges(this, fromValues, toValues, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public int countInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                return slowChild.countInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public long sumInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                return slowChild.sumInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public long minInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                return slowChild.minInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+
+            @Override
+            public long maxInRange(final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+                return slowChild.maxInRange(fromValue, toValue, fromInclusive, toInclusive);
+            }
+
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(OFFSETS.length);
+        try {
+            final IntRangeContainer container = new FederatedRangeContainer(children, OFFSETS, executor);
+            final int[] expectedIds = scan(childData, 10000, 60000, true, false);
+            final IntIds ids = container.findIdsInRange(10000, 60000, true, false);
+            int expectedBeforeRelease = 0;
+            while (expectedIds[expectedBeforeRelease] < OFFSETS[0]) {
+                expectedBeforeRelease++;
+            }
+            final int[] beforeRelease = drain(ids, expectedBeforeRelease);
+            assertEquals(1, release.getCount());
+            release.countDown();
+            final int[] afterRelease = drain(ids, Integer.MAX_VALUE);
+            final int[] actualIds = Arrays.copyOf(beforeRelease, beforeRelease.length + afterRelease.length);
+            System.arraycopy(afterRelease, 0, actualIds, beforeRelease.length, afterRelease.length);
+            assertArrayEquals(expectedIds, actualIds);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static long valueOf(final long[][] childData, final int id) {
+        for (int child = 0; child < OFFSETS.length; child++) {
+            if (id >= OFFSETS[child] && id < OFFSETS[child] + childData[child].length) {
+                return childData[child][id - OFFSETS[child]];
+            }
+        }
+        throw new IllegalArgumentException("no child holds id " + id);
+    }
+
+    private static int[] scan(final long[][] childData, final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final long lowerValue = Math.min(fromValue, toValue);
+        final long upperValue = Math.max(fromValue, toValue);
+        final int[] ids = new int[OFFSETS.length * WORKERS_PER_CHILD];
+        int size = 0;
+        for (int child = 0; child < OFFSETS.length; child++) {
+            for (int id = 0; id < childData[child].length; id++) {
+                final long value = childData[child][id];
+                final boolean aboveLower = fromInclusive ? value >= lowerValue : value > lowerValue;
+                final boolean belowUpper = toInclusive ? value <= upperValue : value < upperValue;
+                if (aboveLower && belowUpper) {
+                    ids[size++] = OFFSETS[child] + id;
+                }
+            }
+        }
+        Arrays.sort(ids, 0, size);
+        return Arrays.copyOf(ids, size);
+    }
+
+    private static int[] drain(final IntIds ids, final int limit) {
+        int[] array = new int[16];
+        int size = 0;
+        int id;
+        while (size < limit && (id = ids.nextId()) != IntIds.END_OF_IDS) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = id;
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+    private static long[][] getRandomChildData() {
+        final long[][] childData = new long[OFFSETS.length][WORKERS_PER_CHILD];
+        for (final long[] data : childData) {
+            for (int index = 0; index < data.length; index++) {
+                data[index] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+            }
+        }
+        return childData;
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author eiathom
+ *
+ */
+public class MappedRangeQueryContainerTest {
+
+    private static final int NUMBER_OF_WORKERS = 32000;
+
+    private static final int MAXIMUM_NET_SALARY = 75000;
+
+    private static final int MINIMUM_NET_SALARY = 1000;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void runRangeQueries_afterWritingAndReopening_expectSameResultsAsTheInMemoryContainer() throws IOException {
+        final long[] data = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < data.length; id++) {
+            data[id] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+        }
+        final Path file = folder.newFile().toPath();
+        MappedRangeQueryContainer.write(data, file);
+        final RangeContainer mapped = MappedRangeQueryContainer.open(file);
+        final RangeContainer inMemory = new NetRangeQueryContainer(data);
+        for (int query = 0; query < 200; query++) {
+            final long fromValue = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY - 100, MAXIMUM_NET_SALARY + 100);
+            final long toValue = fromValue + ThreadLocalRandom.current().nextLong(query % 2 == 0 ? 50 : 20000);
+            final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+            final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+            assertArrayEquals(BruteForceRangeContainer.drain(inMemory.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)),
+                    BruteForceRangeContainer.drain(mapped.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)));
+            assertEquals(inMemory.countInRange(fromValue, toValue, fromInclusive, toInclusive), mapped.countInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(inMemory.sumInRange(fromValue, toValue, fromInclusive, toInclusive), mapped.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(inMemory.minInRange(fromValue, toValue, fromInclusive, toInclusive), mapped.minInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(inMemory.maxInRange(fromValue, toValue, fromInclusive, toInclusive), mapped.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void open_aFileNotWrittenAsAContainer_expectIOException() throws IOException {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        MappedRangeQueryContainer.open(file);
+    }
+
+}
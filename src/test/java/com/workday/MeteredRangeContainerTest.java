@@ -0,0 +1,93 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class MeteredRangeContainerTest {
+
+    private static final long[] DATA = new long[]{10, 12, 17, 21, 2, 15, 16};
+
+    @Test
+    public void runRangeQueries_throughAMeteredContainer_expectQueriesBatchesAggregatesAndBuildRecordedApartAndReadableOverJmx() throws Exception {
+        final HistogramRangeQueryMetrics metrics = new HistogramRangeQueryMetrics();
+        final RangeContainer container = new MeteredRangeQueryContainerFactory(new SortedArrayRangeQueryContainerFactory(), metrics).createContainer(DATA);
+        assertEquals(3, BruteForceRangeContainer.drain(container.findIdsInRange(14, 17, true, true)).length);
+        assertEquals(4, container.countInRange(10, 16, true, true));
+        assertEquals(2, container.findIdsInRanges(new long[]{1, 14}, new long[]{9, 17}, new boolean[]{true, true}, new boolean[]{true, true}).length);
+        assertEquals(1, metrics.getQueryCount());
+        assertEquals(4, metrics.getRangeWidthMean(), 0);
+        assertEquals(1, metrics.getAggregateCount());
+        assertEquals(1, metrics.getBatchCount());
+        assertEquals(2, metrics.getBatchSizeMean(), 0);
+        assertEquals(1, metrics.getBuildCount());
+        assertEquals(DATA.length, metrics.getBuildSizeMean(), 0);
+        assertEquals(7, metrics.getBuildSizeMax());
+        assertTrue(metrics.getQueryLatencyP99() >= metrics.getQueryLatencyP50());
+        final ObjectName name = metrics.register("metered-test");
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1L, server.getAttribute(name, "QueryCount"));
+            assertEquals(1L, server.getAttribute(name, "AggregateCount"));
+            assertEquals(7L, server.getAttribute(name, "BuildSizeMax"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+        metrics.logSummary();
+    }
+
+    @Test
+    public void runARangeQuery_withASelectiveResult_expectItsSizeRecorded() {
+        final long[] data = new long[1000];
+        for (int id = 0; id < data.length; id++) {
+            data[id] = id;
+        }
+        final HistogramRangeQueryMetrics metrics = new HistogramRangeQueryMetrics();
+        final RangeContainer container = new MeteredRangeContainer(new SortedArrayRangeQueryContainer(data), metrics);
+        assertEquals(5, BruteForceRangeContainer.drain(container.findIdsInRange(0, 4, true, true)).length);
+        assertEquals(5, metrics.getResultSizeMean(), 0);
+    }
+
+    @Test
+    public void runRangeQueries_reachingTheHighestValue_expectTheRangeWidthMeanToSaturateRatherThanOverflow() {
+        final HistogramRangeQueryMetrics metrics = new HistogramRangeQueryMetrics();
+        final RangeContainer container = new MeteredRangeQueryContainerFactory(new SortedArrayRangeQueryContainerFactory(), metrics).createContainer(DATA);
+        container.findIdsInRange(0, Long.MAX_VALUE, true, true);
+        container.findIdsInRange(0, Long.MAX_VALUE, true, true);
+        assertEquals(2, metrics.getQueryCount());
+        assertEquals(Long.MAX_VALUE / 2.0, metrics.getRangeWidthMean(), 0);
+    }
+
+    @Test
+    public void createContainer_withMetricsDisabled_expectTheUndecoratedContainer() {
+        final RangeContainer container = new MeteredRangeQueryContainerFactory(new SortedArrayRangeQueryContainerFactory(), RangeQueryMetrics.DISABLED).createContainer(DATA);
+        assertSame(SortedArrayRangeQueryContainer.class, container.getClass());
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class MultiColumnRangeQueryContainerTest {
+
+    private static final int NUMBER_OF_WORKERS = 32000;
+
+    private static final int GROSS = 0;
+
+    private static final int NET = 1;
+
+    private static final int TAX = 2;
+
+    private static final int HOURS = 3;
+
+    @Test
+    public void runConjunctionsAndDisjunctions_overFourColumns_expectSameIdsAsAFullScan() {
+        final long[][] columns = new long[4][NUMBER_OF_WORKERS];
+        for (int id = 0; id < NUMBER_OF_WORKERS; id++) {
+            columns[GROSS][id] = ThreadLocalRandom.current().nextLong(1500, 100000);
+            columns[TAX][id] = columns[GROSS][id] / 4;
+            columns[NET][id] = columns[GROSS][id] - columns[TAX][id];
+            columns[HOURS][id] = ThreadLocalRandom.current().nextLong(10, 60);
+        }
+        final MultiColumnRangeQueryContainer container = new MultiColumnRangeQueryContainer(columns);
+        final RangePredicate[][] queries = new RangePredicate[][]{
+            { new RangePredicate(NET, 2000, 3000, true, true), new RangePredicate(TAX, 0, 500, true, false) },
+            { new RangePredicate(HOURS, 20, 40, true, true), new RangePredicate(GROSS, 10000, 90000, false, false), new RangePredicate(TAX, 5000, 20000, true, true) },
+            { new RangePredicate(NET, 50000, 60000, true, true), new RangePredicate(NET, 55000, 70000, true, true) },
+            { new RangePredicate(HOURS, 30, 30, true, false), new RangePredicate(GROSS, 1500, 100000, true, true) }
+        };
+        for (final RangePredicate[] query : queries) {
+            assertArrayEquals(scan(columns, query, true), BruteForceRangeContainer.drain(container.findIdsMatchingAll(query)));
+            assertArrayEquals(scan(columns, query, false), BruteForceRangeContainer.drain(container.findIdsMatchingAny(query)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_withColumnsOfDifferentLengths_expectIllegalArgumentException() {
+        new MultiColumnRangeQueryContainer(new long[]{1, 2}, new long[]{1});
+    }
+
+    private static short[] scan(final long[][] columns, final RangePredicate[] predicates, final boolean all) {
+        final short[] ids = new short[NUMBER_OF_WORKERS];
+        int size = 0;
+        for (int id = 0; id < NUMBER_OF_WORKERS; id++) {
+            boolean matches = all;
+            for (final RangePredicate predicate : predicates) {
+                final short[] inRange = new BruteForceRangeContainer(new long[]{columns[predicate.getColumn()][id]})
+                        .scan(predicate.getFromValue(), predicate.getToValue(), predicate.isFromInclusive(), predicate.isToInclusive());
+                matches = all ? matches && inRange.length == 1 : matches || inRange.length == 1;
+            }
+            if (matches) {
+                ids[size++] = (short) id;
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class MutableRangeQueryContainerTest {
+
+    private static final int NUMBER_OF_WORKERS = 5000;
+
+    private static final int MAXIMUM_NET_SALARY = 75000;
+
+    private static final int MINIMUM_NET_SALARY = 1000;
+
+    /**
+     * value the reference data holds for a removed id, never in range of a valid query
+     */
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    private final ExecutorService mergeExecutor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        mergeExecutor.shutdownNow();
+    }
+
+    @Test
+    public void runARangeQuery_afterUpdatesInsertsAndRemovals_expectTheLatestValues() {
+        final MutableRangeQueryContainer container = new MutableRangeQueryContainer(new long[]{10, 12, 17, 21, 2, 15, 16}, 100, mergeExecutor);
+        container.put((short) 0, 14);
+        container.remove((short) 5);
+        container.put((short) 9, 15);
+        assertArrayEquals(new short[]{0, 2, 6, 9}, BruteForceRangeContainer.drain(container.findIdsInRange(14, 17, true, true)));
+        assertEquals(4, container.countInRange(14, 17, true, true));
+        assertEquals(62, container.sumInRange(14, 17, true, true));
+        assertEquals(14, container.minInRange(14, 17, true, true));
+        assertEquals(17, container.maxInRange(14, 17, true, true));
+        container.merge();
+        assertArrayEquals(new short[]{0, 2, 6, 9}, BruteForceRangeContainer.drain(container.findIdsInRange(14, 17, true, true)));
+        assertArrayEquals(new short[]{0, 1, 2, 3, 4, 6, 9}, BruteForceRangeContainer.drain(container.findIdsInRange(0, 100, true, true)));
+    }
+
+    @Test
+    public void runRangeQueries_whileWritesAreMergedInTheBackground_expectSameResultsAsAFullScan() throws Exception {
+        final long[] data = getRandomData(NUMBER_OF_WORKERS);
+        final MutableRangeQueryContainer container = new MutableRangeQueryContainer(data, 64, mergeExecutor);
+        long[] expectedData = data.clone();
+        for (int write = 0; write < 5000; write++) {
+            final short id = (short) ThreadLocalRandom.current().nextInt(NUMBER_OF_WORKERS + 100);
+            if (id >= expectedData.length) {
+                final int oldLength = expectedData.length;
+                expectedData = Arrays.copyOf(expectedData, id + 1);
+                Arrays.fill(expectedData, oldLength, expectedData.length, REMOVED);
+            }
+            if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                container.remove(id);
+                expectedData[id] = REMOVED;
+            } else {
+                final long value = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+                container.put(id, value);
+                expectedData[id] = value;
+            }
+            if (write % 250 == 0) {
+                assertQueries(container, new BruteForceRangeContainer(expectedData));
+            }
+        }
+        container.merge();
+        assertQueries(container, new BruteForceRangeContainer(expectedData));
+    }
+
+    @Test
+    public void runRangeQueries_concurrentlyWithAWriter_expectAscendingIdsAndNoStalls() throws Exception {
+        final MutableRangeQueryContainer container = new MutableRangeQueryContainer(getRandomData(NUMBER_OF_WORKERS), 32, mergeExecutor);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> reader = readers.submit(new Runnable() {
+                @Override
+                public void run() {
+                    while (writing.get()) {
+                        final short[] ids = BruteForceRangeContainer.drain(container.findIdsInRange(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY, true, true));
+                        for (int index = 1; index < ids.length; index++) {
+                            assertTrue(ids[index - 1] < ids[index]);
+                        }
+                    }
+                }
+            });
+            for (int write = 0; write < 20000; write++) {
+                container.put((short) ThreadLocalRandom.current().nextInt(NUMBER_OF_WORKERS), ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY));
+            }
+            writing.set(false);
+            reader.get(10, TimeUnit.SECONDS);
+        } finally {
+            readers.shutdownNow();
+        }
+        assertEquals(NUMBER_OF_WORKERS, container.countInRange(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY, true, true));
+    }
+
+    private static void assertQueries(final RangeContainer container, final BruteForceRangeContainer expected) {
+        for (int query = 0; query < 10; query++) {
+            final long fromValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+            final long toValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+            final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+            final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+            assertArrayEquals(expected.scan(fromValue, toValue, fromInclusive, toInclusive),
+                    BruteForceRangeContainer.drain(container.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)));
+            assertEquals(expected.countInRange(fromValue, toValue, fromInclusive, toInclusive), container.countInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.sumInRange(fromValue, toValue, fromInclusive, toInclusive), container.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.minInRange(fromValue, toValue, fromInclusive, toInclusive), container.minInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.maxInRange(fromValue, toValue, fromInclusive, toInclusive), container.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+        }
+    }
+
+    private static long[] getRandomData(final int numberOfWorkers) {
+        final long[] data = new long[numberOfWorkers];
+        for (int index = 0; index < numberOfWorkers; index++) {
+            data[index] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+        }
+        return data;
+    }
+
+}
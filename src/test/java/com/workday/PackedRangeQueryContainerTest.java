@@ -0,0 +1,74 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class PackedRangeQueryContainerTest {
+
+    private static final int NUMBER_OF_WORKERS = 32000;
+
+    private static final int MAXIMUM_NET_SALARY = 75000;
+
+    private static final int MINIMUM_NET_SALARY = 1000;
+
+    @Test
+    public void runRangeQueries_acrossBlockBoundaries_expectSameResultsAsAFullScan() {
+        final long[] data = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < data.length; id++) {
+            data[id] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+        }
+        // a block spanning the whole long range packs its offsets at full width
+        data[0] = Long.MIN_VALUE + 1;
+        data[1] = Long.MAX_VALUE - 1;
+        data[2] = Long.MAX_VALUE - 2;
+        final RangeContainer container = new PackedRangeQueryContainer(data);
+        final RangeContainer expected = new BruteForceRangeContainer(data);
+        for (int query = 0; query < 300; query++) {
+            final long fromValue = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY - 100, MAXIMUM_NET_SALARY + 100);
+            final long toValue = query % 10 == 0 ? Long.MAX_VALUE : fromValue + ThreadLocalRandom.current().nextLong(query % 2 == 0 ? 50 : 20000);
+            final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+            final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+            assertArrayEquals(BruteForceRangeContainer.drain(expected.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)),
+                    BruteForceRangeContainer.drain(container.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)));
+            assertEquals(expected.countInRange(fromValue, toValue, fromInclusive, toInclusive), container.countInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.sumInRange(fromValue, toValue, fromInclusive, toInclusive), container.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.minInRange(fromValue, toValue, fromInclusive, toInclusive), container.minInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.maxInRange(fromValue, toValue, fromInclusive, toInclusive), container.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+        }
+    }
+
+    @Test
+    public void create_withSalariesInANarrowBand_expectValuesHeldInAQuarterOfAPlainArray() {
+        final long[] data = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < data.length; id++) {
+            data[id] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+        }
+        final PackedRangeQueryContainer container = new PackedRangeQueryContainer(data);
+        assertTrue(container.getValueSizeInBytes() * 4 < 8L * NUMBER_OF_WORKERS);
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class PointLookupRangeContainerTest {
+
+    private static final int NUMBER_OF_WORKERS = 30000;
+
+    @Test
+    public void findIdsEqual_overDuplicatedAndExtremeValues_expectSameIdsAsAnInclusiveRangeOfOneValue() {
+        final long[] data = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < data.length; id++) {
+            data[id] = 1000 + ThreadLocalRandom.current().nextInt(500) * 148;
+        }
+        data[0] = Long.MIN_VALUE;
+        data[1] = -5;
+        data[2] = Long.MAX_VALUE;
+        data[3] = Long.MAX_VALUE - 1;
+        assertEqualityQueries(new SortedArrayRangeQueryContainer(data));
+        // a narrow span for the dense layout
+        for (int id = 0; id < 4; id++) {
+            data[id] = 1000 + id;
+        }
+        assertEqualityQueries(new DenseBucketRangeQueryContainer(data));
+    }
+
+    @Test
+    public void valueOf_everyIdAndIdsOutsideTheContainer_expectTheDataValueOrNoValue() {
+        final long[] data = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < data.length; id++) {
+            data[id] = ThreadLocalRandom.current().nextLong(1000, 75000);
+        }
+        assertValues(data, new SortedArrayRangeQueryContainer(data));
+        for (int id = 0; id < data.length; id++) {
+            data[id] = ThreadLocalRandom.current().nextLong(1000, 2000);
+        }
+        assertValues(data, new DenseBucketRangeQueryContainer(data));
+        assertEquals(0, drain(new SortedArrayRangeQueryContainer(new long[0]).findIdsEqual(0)).length);
+        assertEquals(0, drain(new DenseBucketRangeQueryContainer(new long[0]).findIdsEqual(0)).length);
+    }
+
+    private static void assertEqualityQueries(final PointLookupRangeContainer container) {
+        for (final long value : new long[]{Long.MIN_VALUE, -5, 0, 999, 1000, 1148, 1149, 74852, Long.MAX_VALUE - 1, Long.MAX_VALUE}) {
+            assertArrayEquals(drain(container.findIdsInRange(value, value, true, true)), drain(container.findIdsEqual(value)));
+        }
+        for (int probe = 0; probe < 1000; probe++) {
+            final long value = ThreadLocalRandom.current().nextLong(900, 75000);
+            assertArrayEquals(drain(container.findIdsInRange(value, value, true, true)), drain(container.findIdsEqual(value)));
+        }
+    }
+
+    private static void assertValues(final long[] data, final PointLookupRangeContainer container) {
+        for (int id = 0; id < data.length; id++) {
+            assertEquals(data[id], container.valueOf((short) id));
+        }
+        assertEquals(RangeContainer.NO_VALUE, container.valueOf((short) -1));
+        assertEquals(RangeContainer.NO_VALUE, container.valueOf((short) NUMBER_OF_WORKERS));
+    }
+
+    private static short[] drain(final Ids ids) {
+        final short[] buffer = new short[NUMBER_OF_WORKERS];
+        int size = 0;
+        short id;
+        while ((id = ids.nextId()) != Ids.END_OF_IDS) {
+            buffer[size++] = id;
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+}
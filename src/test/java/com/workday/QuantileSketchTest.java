@@ -0,0 +1,67 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class QuantileSketchTest {
+
+    private static final int NUMBER_OF_WORKERS = 32000;
+
+    @Test
+    public void estimate_quantilesRanksAndCounts_expectEveryAnswerWithinTheStatedError() {
+        final long[] data = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < data.length; id++) {
+            final double uniform = ThreadLocalRandom.current().nextDouble();
+            data[id] = 1000 + (long) (uniform * uniform * 74000);
+        }
+        final QuantileSketch sketch = ((SketchedRangeContainer) new SortedArrayRangeQueryContainer(data)).getQuantileSketch();
+        final long[] sortedValues = data.clone();
+        Arrays.sort(sortedValues);
+        final BruteForceRangeContainer expected = new BruteForceRangeContainer(data);
+        assertTrue(sketch.getRankError() < NUMBER_OF_WORKERS / 200);
+        for (final double quantile : new double[]{0, 0.1, 0.5, 0.9, 0.99, 1}) {
+            final long value = sketch.quantile(quantile);
+            final int target = (int) (quantile * (NUMBER_OF_WORKERS - 1));
+            // the value occupies the ranks from its first to its last occurrence
+            final int firstRank = ContainerHelper.firstPositionAtOrAbove(sortedValues, value);
+            final int lastRank = ContainerHelper.firstPositionAbove(sortedValues, value) - 1;
+            assertTrue(target >= firstRank - sketch.getRankError() && target <= lastRank + sketch.getRankError());
+        }
+        for (int query = 0; query < 500; query++) {
+            final long fromValue = ThreadLocalRandom.current().nextLong(0, 80000);
+            final long toValue = fromValue + ThreadLocalRandom.current().nextLong(20000);
+            final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+            final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+            final int count = expected.countInRange(fromValue, toValue, fromInclusive, toInclusive);
+            assertTrue(Math.abs(sketch.approximateCountInRange(fromValue, toValue, fromInclusive, toInclusive) - count) <= sketch.getCountError());
+            assertTrue(sketch.getCountUpperBound(fromValue, toValue, fromInclusive, toInclusive) >= count);
+            assertTrue(Math.abs(sketch.rank(fromValue) - ContainerHelper.firstPositionAtOrAbove(sortedValues, fromValue)) <= sketch.getRankError());
+        }
+        assertEquals(0, sketch.getCountUpperBound(80000, 90000, true, true));
+    }
+
+}
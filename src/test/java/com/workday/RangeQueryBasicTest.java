@@ -15,17 +15,24 @@
  */
 package com.workday;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.ThreadLocalRandom;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 
 /**
  * @author eiathom
  *
  */
+@RunWith(Parameterized.class)
 public class RangeQueryBasicTest {
 
     private static final int NUMBER_OF_WORKERS = 32000;
@@ -34,12 +41,33 @@ public class RangeQueryBasicTest {
 
     private static final int MINIMUM_NET_SALARY = 1000;
 
+    private final RangeQueryContainerFactory factory;
+
     private RangeContainer container;
 
+    public RangeQueryBasicTest(final String name, final RangeQueryContainerFactory factory) {
+        this.factory = factory;
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> factories() {
+        return Arrays.asList(new Object[][] {
+            { "skip list", new NetRangeQueryContainerFactory() },
+            { "sorted array", new SortedArrayRangeQueryContainerFactory() },
+            { "sorted array, eytzinger search", new SortedArrayRangeQueryContainerFactory(SearchStrategy.EYTZINGER) },
+            { "sorted array, interpolation search", new SortedArrayRangeQueryContainerFactory(SearchStrategy.INTERPOLATION) },
+            { "posting list", new PostingListRangeQueryContainerFactory() },
+            { "packed", new PackedRangeQueryContainerFactory() },
+            { "bucket bitmap", new BucketBitmapRangeQueryContainerFactory() },
+            { "dense buckets", new DenseBucketRangeQueryContainerFactory() },
+            { "adaptive", new AdaptiveRangeQueryContainerFactory() },
+            { "cached sorted array", new CachingRangeQueryContainerFactory(new SortedArrayRangeQueryContainerFactory()) }
+        });
+    }
+
     @Before
     public void setUp() {
-        RangeQueryContainerFactory rf = new NetRangeQueryContainerFactory();
-        container = rf.createContainer(new long[]{10, 12, 17, 21, 2, 15, 16});
+        container = factory.createContainer(new long[]{10, 12, 17, 21, 2, 15, 16});
     }
 
     @Test
@@ -106,6 +134,102 @@ public class RangeQueryBasicTest {
         assertEquals(Ids.END_OF_IDS, ids.nextId());
     }
 
+    @Test
+    public void runARangeQuery_withDuplicatedValues_expectEveryWorkerSharingAValue() {
+        final long[] data = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < data.length; id++) {
+            // blocks of workers on the same pay grade, with every tenth worker on a random grade
+            data[id] = id % 10 == 0 ? ThreadLocalRandom.current().nextInt(50) * 1000 : (id / 700) * 1000;
+        }
+        final RangeContainer container = factory.createContainer(data);
+        final BruteForceRangeContainer expected = new BruteForceRangeContainer(data);
+        assertArrayEquals(expected.scan(5000, 5000, true, true), BruteForceRangeContainer.drain(container.findIdsInRange(5000, 5000, true, true)));
+        assertArrayEquals(expected.scan(5000, 9000, true, false), BruteForceRangeContainer.drain(container.findIdsInRange(5000, 9000, true, false)));
+        assertArrayEquals(expected.scan(0, 100000, true, true), BruteForceRangeContainer.drain(container.findIdsInRange(0, 100000, true, true)));
+        assertEquals(expected.countInRange(5000, 9000, true, true), container.countInRange(5000, 9000, true, true));
+    }
+
+    @Test
+    public void runABatchOfRangeQueries_withAdjacentAndOverlappingBands_expectSameResultsAsAFullScan() {
+        final long[] data = getRandonData(NUMBER_OF_WORKERS);
+        final RangeContainer container = factory.createContainer(data);
+        final BruteForceRangeContainer expected = new BruteForceRangeContainer(data);
+        final long[] fromValues = { 0, 10000, 20000, 5000, 30000, 74000, -5, 17, 0, 40000, 40000 };
+        final long[] toValues = { 10000, 20000, 30000, 25000, 1000000, 74000, -1, 17, 1000000, 40100, 40100 };
+        final boolean[] fromInclusive = { true, true, false, true, false, true, true, false, true, false, true };
+        final boolean[] toInclusive = { false, false, true, true, false, true, true, false, true, true, false };
+        assertBatch(container, expected, fromValues, toValues, fromInclusive, toInclusive);
+        final long[] narrowFromValues = { 1000, 1010, 1020, 50000 };
+        final long[] narrowToValues = { 1010, 1020, 1030, 50000 };
+        final boolean[] narrowInclusive = { true, true, true, true };
+        assertBatch(container, expected, narrowFromValues, narrowToValues, narrowInclusive, narrowInclusive);
+    }
+
+    private static void assertBatch(final RangeContainer container, final BruteForceRangeContainer expected,
+            final long[] fromValues, final long[] toValues, final boolean[] fromInclusive, final boolean[] toInclusive) {
+        final Ids[] ids = container.findIdsInRanges(fromValues, toValues, fromInclusive, toInclusive);
+        assertEquals(fromValues.length, ids.length);
+        for (int range = 0; range < ids.length; range++) {
+            assertArrayEquals(expected.scan(fromValues[range], toValues[range], fromInclusive[range], toInclusive[range]),
+                    BruteForceRangeContainer.drain(ids[range]));
+        }
+    }
+
+    @Test
+    public void readRangeQueriesInBulk_expectSameResultsAsAFullScan() {
+        final long[] data = getRandonData(NUMBER_OF_WORKERS);
+        final RangeContainer container = factory.createContainer(data);
+        final BruteForceRangeContainer expected = new BruteForceRangeContainer(data);
+        final long[][] ranges = { { 5000, 5010 }, { 5000, 5500 }, { 5000, 20000 }, { 5000, 60000 }, { 0, 1000000 } };
+        final short[] buffer = new short[100];
+        for (final long[] range : ranges) {
+            final short[] expectedIds = expected.scan(range[0], range[1], true, false);
+            final Ids ids = container.findIdsInRange(range[0], range[1], true, false);
+            int index = 0;
+            if (expectedIds.length > 0) {
+                assertEquals(expectedIds[index++], ids.nextId());
+            }
+            int count;
+            while ((count = ids.nextIds(buffer)) > 0) {
+                for (int position = 0; position < count; position++) {
+                    assertEquals(expectedIds[index++], buffer[position]);
+                }
+            }
+            assertEquals(expectedIds.length, index);
+            assertEquals(Ids.END_OF_IDS, ids.nextId());
+        }
+    }
+
+    @Test
+    public void aggregateARangeQuery() {
+        assertEquals(3, container.countInRange(14, 17, true, true));
+        assertEquals(48, container.sumInRange(14, 17, true, true));
+        assertEquals(15, container.minInRange(14, 17, true, true));
+        assertEquals(17, container.maxInRange(14, 17, true, true));
+        assertEquals(2, container.countInRange(17, 14, false, false));
+        assertEquals(0, container.countInRange(17, 17, false, true));
+        assertEquals(0, container.sumInRange(-1, -1, true, false));
+        assertEquals(RangeContainer.NO_VALUE, container.minInRange(18, 19, true, true));
+        assertEquals(RangeContainer.NO_VALUE, container.maxInRange(18, 19, true, true));
+    }
+
+    @Test
+    public void aggregateRandomRangeQueries_expectSameResultsAsAFullScan() {
+        final long[] data = getRandonData(NUMBER_OF_WORKERS);
+        final RangeContainer container = factory.createContainer(data);
+        final BruteForceRangeContainer expected = new BruteForceRangeContainer(data);
+        for (int query = 0; query < 50; query++) {
+            final long fromValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+            final long toValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+            final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+            final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+            assertEquals(expected.countInRange(fromValue, toValue, fromInclusive, toInclusive), container.countInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.sumInRange(fromValue, toValue, fromInclusive, toInclusive), container.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.minInRange(fromValue, toValue, fromInclusive, toInclusive), container.minInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(expected.maxInRange(fromValue, toValue, fromInclusive, toInclusive), container.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+        }
+    }
+
     @Test
     public void basicPerformanceTesting() {
         testBuilder(1000, 2000);
@@ -124,7 +248,6 @@ public class RangeQueryBasicTest {
                 expectedNumberOfIds += range;
             }
         }
-        final RangeQueryContainerFactory factory = new NetRangeQueryContainerFactory();
         final RangeContainer container = factory.createContainer(data);
         final Ids ids = container.findIdsInRange(netSalaryBottomRange, netSalaryTopRange, false, false);
         short id = 0;
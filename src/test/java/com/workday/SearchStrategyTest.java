@@ -0,0 +1,66 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class SearchStrategyTest {
+
+    private static final long[] PROBES = new long[]{Long.MIN_VALUE, Long.MIN_VALUE + 1, -1, 0, 1, 999, 1000, 1001, 74999, 75000, 75001, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+
+    @Test
+    public void search_uniformSkewedDuplicatedAndExtremeValues_expectSamePositionsAsABinarySearch() {
+        final long[] uniform = new long[10000];
+        final long[] skewed = new long[10000];
+        final long[] duplicated = new long[10000];
+        for (int index = 0; index < uniform.length; index++) {
+            final double random = ThreadLocalRandom.current().nextDouble();
+            uniform[index] = 1000 + (long) (random * 74000);
+            skewed[index] = 1000 + (long) (random * random * random * 74000);
+            duplicated[index] = 1000 + ThreadLocalRandom.current().nextInt(50) * 1480;
+        }
+        final long[] extreme = uniform.clone();
+        extreme[0] = Long.MIN_VALUE;
+        extreme[1] = Long.MAX_VALUE;
+        for (final long[] data : new long[][]{uniform, skewed, duplicated, extreme, {}, {42}, {7, 7, 7}}) {
+            Arrays.sort(data);
+            for (final SearchStrategy strategy : SearchStrategy.values()) {
+                final PositionSearch search = strategy.newSearch(data);
+                for (final long probe : PROBES) {
+                    assertSearch(data, search, probe);
+                }
+                for (int probe = 0; probe < 2000; probe++) {
+                    assertSearch(data, search, ThreadLocalRandom.current().nextLong(900, 75100));
+                }
+            }
+        }
+    }
+
+    private static void assertSearch(final long[] data, final PositionSearch search, final long probe) {
+        assertEquals(ContainerHelper.firstPositionAbove(data, probe), search.firstPositionAbove(probe));
+        assertEquals(ContainerHelper.firstPositionAtOrAbove(data, probe), search.firstPositionAtOrAbove(probe));
+    }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class SegmentedRangeQueryContainerTest {
+
+    private static final int NUMBER_OF_WORKERS = 100000;
+
+    private static final int MAXIMUM_NET_SALARY = 75000;
+
+    private static final int MINIMUM_NET_SALARY = 1000;
+
+    @Test
+    public void runARangeQuery_overMoreThan32kWorkers_expectAscendingIdsFromEverySegment() {
+        final long[] data = getRandomData(NUMBER_OF_WORKERS);
+        final IntRangeContainer container = new SegmentedRangeQueryContainerFactory().createContainer(data);
+        assertQueries(data, container);
+    }
+
+    @Test
+    public void runARangeQuery_withSmallSegmentsOfPostingLists_expectSameResultsAsAFullScan() {
+        final long[] data = getRandomData(NUMBER_OF_WORKERS);
+        final IntRangeContainer container = new SegmentedRangeQueryContainer(data, new PostingListRangeQueryContainerFactory(), new ForkJoinPool(4), 1000);
+        assertQueries(data, container);
+    }
+
+    @Test
+    public void readARangeQueryInBulk_expectSameIdsAsOneAtATime() {
+        final long[] data = getRandomData(NUMBER_OF_WORKERS);
+        final IntRangeContainer container = new SegmentedRangeQueryContainerFactory().createContainer(data);
+        final int[] expectedIds = scan(data, 5000, 40000, true, true);
+        final IntIds ids = container.findIdsInRange(5000, 40000, true, true);
+        final int[] buffer = new int[333];
+        final int[] actualIds = new int[expectedIds.length];
+        int size = 0;
+        int count;
+        while ((count = ids.nextIds(buffer)) > 0) {
+            System.arraycopy(buffer, 0, actualIds, size, count);
+            size += count;
+        }
+        assertEquals(expectedIds.length, size);
+        assertArrayEquals(expectedIds, actualIds);
+        assertEquals(IntIds.END_OF_IDS, ids.nextId());
+    }
+
+    private static void assertQueries(final long[] data, final IntRangeContainer container) {
+        for (int query = 0; query < 20; query++) {
+            final long fromValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+            final long toValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+            final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+            final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+            final int[] expectedIds = scan(data, fromValue, toValue, fromInclusive, toInclusive);
+            assertArrayEquals(expectedIds, drain(container.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)));
+            assertEquals(expectedIds.length, container.countInRange(fromValue, toValue, fromInclusive, toInclusive));
+            long sum = 0;
+            long min = IntRangeContainer.NO_VALUE;
+            long max = IntRangeContainer.NO_VALUE;
+            for (final int id : expectedIds) {
+                sum += data[id];
+                min = min == IntRangeContainer.NO_VALUE ? data[id] : Math.min(min, data[id]);
+                max = Math.max(max, data[id]);
+            }
+            assertEquals(sum, container.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(min, container.minInRange(fromValue, toValue, fromInclusive, toInclusive));
+            assertEquals(max, container.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+        }
+    }
+
+    private static int[] scan(final long[] data, final long fromValue, final long toValue, final boolean fromInclusive, final boolean toInclusive) {
+        final long lowerValue = Math.min(fromValue, toValue);
+        final long upperValue = Math.max(fromValue, toValue);
+        final int[] ids = new int[data.length];
+        int size = 0;
+        for (int id = 0; id < data.length; id++) {
+            final boolean aboveLower = fromInclusive ? data[id] >= lowerValue : data[id] > lowerValue;
+            final boolean belowUpper = toInclusive ? data[id] <= upperValue : data[id] < upperValue;
+            if (aboveLower && belowUpper) {
+                ids[size++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    private static int[] drain(final IntIds ids) {
+        int[] array = new int[16];
+        int size = 0;
+        int id;
+        while ((id = ids.nextId()) != IntIds.END_OF_IDS) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = id;
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+    private static long[] getRandomData(final int numberOfWorkers) {
+        final long[] data = new long[numberOfWorkers];
+        for (int index = 0; index < numberOfWorkers; index++) {
+            data[index] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+        }
+        return data;
+    }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class SortedArrayMapTest {
+
+    @Test
+    public void subHeadAndTailMaps_overDistinctValues_expectSameEntriesAsATreeMap() {
+        final long[] sortedValues = new long[]{2, 10, 12, 15, 16, 17, 21};
+        final short[] ids = new short[]{4, 0, 1, 5, 6, 2, 3};
+        final TreeMap<Long, Short> expected = new TreeMap<>();
+        for (int position = 0; position < sortedValues.length; position++) {
+            expected.put(sortedValues[position], ids[position]);
+        }
+        final SortedMap<Long, Short> actual = new SortedArrayMap(sortedValues, ids);
+        assertSameEntries(expected, actual);
+        for (long fromKey = 0; fromKey < 24; fromKey++) {
+            assertSameEntries(expected.headMap(fromKey), actual.headMap(fromKey));
+            assertSameEntries(expected.tailMap(fromKey), actual.tailMap(fromKey));
+            for (long toKey = fromKey; toKey < 24; toKey++) {
+                assertSameEntries(expected.subMap(fromKey, toKey), actual.subMap(fromKey, toKey));
+                if (toKey > fromKey + 2) {
+                    assertSameEntries(expected.subMap(fromKey, toKey).tailMap(fromKey + 2), actual.subMap(fromKey, toKey).tailMap(fromKey + 2));
+                }
+            }
+        }
+        assertEquals(Long.valueOf(12), actual.subMap(11L, 17L).firstKey());
+        assertEquals(Long.valueOf(16), actual.subMap(11L, 17L).lastKey());
+    }
+
+    @Test
+    public void subMap_overDuplicatedValues_expectEveryEntryOfEachValue() {
+        final SortedMap<Long, Short> map = new SortedArrayMap(new long[]{5, 7, 7, 7, 9}, new short[]{3, 0, 2, 4, 1});
+        assertEquals(3, map.subMap(6L, 8L).size());
+        assertEquals(new ArrayList<>(map.subMap(7L, 10L).values()), Arrays.asList((short) 0, (short) 2, (short) 4, (short) 1));
+    }
+
+    private static void assertSameEntries(final SortedMap<Long, Short> expected, final SortedMap<Long, Short> actual) {
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+        assertEquals(expected.size(), actual.size());
+    }
+
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class TemporalRangeQueryContainerTest {
+
+    private static final int NUMBER_OF_WORKERS = 5000;
+
+    private static final int MAXIMUM_NET_SALARY = 75000;
+
+    private static final int MINIMUM_NET_SALARY = 1000;
+
+    @Test
+    public void runARangeQuery_asOfEveryPeriod_expectSameResultsAsAFullScanOfThatPeriod() {
+        final long[][] periods = new long[8][];
+        periods[0] = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < NUMBER_OF_WORKERS; id++) {
+            periods[0][id] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+        }
+        final TemporalRangeQueryContainer container = new TemporalRangeQueryContainer(periods[0]);
+        int expectedChanges = 0;
+        for (int period = 1; period < periods.length; period++) {
+            // workers join in period 3 and leave in period 6
+            final int numberOfWorkers = period == 3 ? NUMBER_OF_WORKERS + 100 : period == 6 ? NUMBER_OF_WORKERS - 200 : periods[period - 1].length;
+            periods[period] = Arrays.copyOf(periods[period - 1], numberOfWorkers);
+            for (int id = periods[period - 1].length; id < numberOfWorkers; id++) {
+                periods[period][id] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+            }
+            for (int change = 0; change < 100; change++) {
+                periods[period][ThreadLocalRandom.current().nextInt(numberOfWorkers)] += ThreadLocalRandom.current().nextLong(1, 500);
+            }
+            expectedChanges += countChanges(periods[period - 1], periods[period]);
+            assertEquals(period, container.addPeriod(periods[period]));
+        }
+        assertEquals(periods.length, container.getNumberOfPeriods());
+        assertEquals(expectedChanges, container.getNumberOfChanges());
+        for (int period = 0; period < periods.length; period++) {
+            final RangeContainer expected = new BruteForceRangeContainer(periods[period]);
+            final RangeContainer actual = container.asOf(period);
+            for (int query = 0; query < 20; query++) {
+                final long fromValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+                final long toValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+                final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+                final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+                assertArrayEquals(BruteForceRangeContainer.drain(expected.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)),
+                        BruteForceRangeContainer.drain(container.findIdsInRange(period, fromValue, toValue, fromInclusive, toInclusive)));
+                assertEquals(expected.countInRange(fromValue, toValue, fromInclusive, toInclusive), actual.countInRange(fromValue, toValue, fromInclusive, toInclusive));
+                assertEquals(expected.sumInRange(fromValue, toValue, fromInclusive, toInclusive), actual.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+                assertEquals(expected.minInRange(fromValue, toValue, fromInclusive, toInclusive), actual.minInRange(fromValue, toValue, fromInclusive, toInclusive));
+                assertEquals(expected.maxInRange(fromValue, toValue, fromInclusive, toInclusive), actual.maxInRange(fromValue, toValue, fromInclusive, toInclusive));
+            }
+        }
+        assertArrayEquals(BruteForceRangeContainer.drain(container.asOf(periods.length - 1).findIdsInRange(0, MAXIMUM_NET_SALARY, true, true)),
+                BruteForceRangeContainer.drain(container.findIdsInRange(0, MAXIMUM_NET_SALARY, true, true)));
+        for (final int[] between : new int[][]{{0, 1}, {1, 5}, {7, 2}, {4, 4}, {0, 7}}) {
+            assertArrayEquals(getChangedIds(periods[between[0]], periods[between[1]]),
+                    BruteForceRangeContainer.drain(container.findIdsChangedBetween(between[0], between[1])));
+        }
+        assertEquals(periods[5][4000], container.valueOf((short) 4000, 5));
+        assertEquals(periods[3][NUMBER_OF_WORKERS + 50], container.valueOf((short) (NUMBER_OF_WORKERS + 50), 3));
+        assertEquals(RangeContainer.NO_VALUE, container.valueOf((short) (NUMBER_OF_WORKERS + 50), 0));
+        assertEquals(RangeContainer.NO_VALUE, container.valueOf((short) (NUMBER_OF_WORKERS - 1), 6));
+    }
+
+    @Test
+    public void runARangeQuery_afterBroadRaisesInEveryPeriod_expectRebasedAndSameResultsAsAFullScanOfEveryPeriod() {
+        final long[][] periods = new long[10][];
+        periods[0] = new long[NUMBER_OF_WORKERS];
+        for (int id = 0; id < NUMBER_OF_WORKERS; id++) {
+            periods[0][id] = ThreadLocalRandom.current().nextLong(MINIMUM_NET_SALARY, MAXIMUM_NET_SALARY);
+        }
+        final TemporalRangeQueryContainer container = new TemporalRangeQueryContainer(periods[0]);
+        for (int period = 1; period < periods.length; period++) {
+            periods[period] = Arrays.copyOf(periods[period - 1], NUMBER_OF_WORKERS);
+            // one worker in five is raised each period
+            for (int id = period % 5; id < NUMBER_OF_WORKERS; id += 5) {
+                periods[period][id] += ThreadLocalRandom.current().nextLong(1, 500);
+            }
+            container.addPeriod(periods[period]);
+        }
+        assertTrue(container.getNumberOfBases() > 1);
+        for (int period = 0; period < periods.length; period++) {
+            final RangeContainer expected = new BruteForceRangeContainer(periods[period]);
+            final RangeContainer actual = container.asOf(period);
+            for (int query = 0; query < 20; query++) {
+                final long fromValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+                final long toValue = ThreadLocalRandom.current().nextLong(0, MAXIMUM_NET_SALARY);
+                final boolean fromInclusive = ThreadLocalRandom.current().nextBoolean();
+                final boolean toInclusive = ThreadLocalRandom.current().nextBoolean();
+                assertArrayEquals(BruteForceRangeContainer.drain(expected.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)),
+                        BruteForceRangeContainer.drain(actual.findIdsInRange(fromValue, toValue, fromInclusive, toInclusive)));
+                assertEquals(expected.sumInRange(fromValue, toValue, fromInclusive, toInclusive), actual.sumInRange(fromValue, toValue, fromInclusive, toInclusive));
+            }
+            assertEquals(periods[period][1234], container.valueOf((short) 1234, period));
+        }
+        assertArrayEquals(getChangedIds(periods[2], periods[9]), BruteForceRangeContainer.drain(container.findIdsChangedBetween(2, 9)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void runARangeQuery_asOfAPeriodNotAdded_expectIllegalArgumentException() {
+        new TemporalRangeQueryContainer(new long[]{10, 12, 17}).asOf(1);
+    }
+
+    private static int countChanges(final long[] fromData, final long[] toData) {
+        return getChangedIds(fromData, toData).length;
+    }
+
+    private static short[] getChangedIds(final long[] fromData, final long[] toData) {
+        final short[] ids = new short[Math.max(fromData.length, toData.length)];
+        int size = 0;
+        for (int id = 0; id < ids.length; id++) {
+            if (id >= fromData.length || id >= toData.length || fromData[id] != toData[id]) {
+                ids[size++] = (short) id;
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+}
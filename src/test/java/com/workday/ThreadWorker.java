@@ -23,7 +23,7 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public final class ThreadWorker implements Runnable {
 
-    private static final StringBuilder STRING_BUILDER = new StringBuilder(1);
+    private final StringBuilder stringBuilder = new StringBuilder(1);
 
     private final RangeContainer rangeContainer;
 
@@ -43,17 +43,17 @@ public final class ThreadWorker implements Runnable {
         try {
             while (true) {
                 final long[] values = getValues(minValue, maxValue);
-                STRING_BUILDER.delete(0, STRING_BUILDER.length());
-                System.out.println(STRING_BUILDER.append("searching for: ").append(values[0]).append(", ").append(values[1]));
+                stringBuilder.delete(0, stringBuilder.length());
+                System.out.println(stringBuilder.append("searching for: ").append(values[0]).append(", ").append(values[1]));
                 rangeContainer.findIdsInRange(values[0], values[1], true, true);
-                STRING_BUILDER.delete(0, STRING_BUILDER.length());
-                System.out.println(STRING_BUILDER.append("worker is done on this run ... "));
-                STRING_BUILDER.delete(0, STRING_BUILDER.length());
+                stringBuilder.delete(0, stringBuilder.length());
+                System.out.println(stringBuilder.append("worker is done on this run ... "));
+                stringBuilder.delete(0, stringBuilder.length());
                 Thread.sleep(1000);
             }
         } catch (final InterruptedException exception) {
-            System.err.println(STRING_BUILDER.append("sleep got interrupted!").append(": ").append(exception));
-            STRING_BUILDER.delete(0, STRING_BUILDER.length());
+            System.err.println(stringBuilder.append("sleep got interrupted!").append(": ").append(exception));
+            stringBuilder.delete(0, stringBuilder.length());
         }
     }
 
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2017 eiathom
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.workday;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+/**
+ * @author eiathom
+ *
+ */
+public class ValueOrderedRangeContainerTest {
+
+    private static final long[] DATA = new long[]{10, 12, 17, 21, 2, 15, 16, 15};
+
+    @Test
+    public void findInValueOrder_descendingInPagesOfTwo_expectHighestValuesFirstAndAResumableOffset() {
+        for (final ValueOrderedRangeContainer container : new ValueOrderedRangeContainer[]{new SortedArrayRangeQueryContainer(DATA), new PackedRangeQueryContainer(DATA)}) {
+            ValuePage page = container.findInValueOrder(10, 17, true, true, true, 0, 2);
+            assertPage(page, new short[]{2, 6}, new long[]{17, 16});
+            assertTrue(page.hasMore());
+            page = container.findInValueOrder(10, 17, true, true, true, page.getNextOffset(), 2);
+            assertPage(page, new short[]{7, 5}, new long[]{15, 15});
+            page = container.findInValueOrder(10, 17, true, true, true, page.getNextOffset(), 2);
+            assertPage(page, new short[]{1, 0}, new long[]{12, 10});
+            assertFalse(page.hasMore());
+            assertEquals(0, container.findInValueOrder(10, 17, true, true, true, page.getNextOffset(), 2).size());
+            assertPage(container.findInValueOrder(10, 17, false, false, false, 1, 10), new short[]{5, 7, 6}, new long[]{15, 15, 16});
+        }
+    }
+
+    @Test
+    public void findInValueOrder_aLaterPageOfRandomData_expectSamePairsAsSortingTheWholeRange() {
+        final long[] data = new long[32000];
+        for (int id = 0; id < data.length; id++) {
+            data[id] = ThreadLocalRandom.current().nextLong(1000, 75000);
+        }
+        final List<Long> valuesInRange = new ArrayList<>();
+        for (final long value : data) {
+            if (value >= 20000 && value <= 40000) {
+                valuesInRange.add(value);
+            }
+        }
+        Collections.sort(valuesInRange, Collections.reverseOrder());
+        for (final ValueOrderedRangeContainer container : new ValueOrderedRangeContainer[]{new SortedArrayRangeQueryContainer(data), new PackedRangeQueryContainer(data)}) {
+            final ValuePage page = container.findInValueOrder(20000, 40000, true, true, true, 100, 50);
+            assertEquals(50, page.size());
+            for (int index = 0; index < page.size(); index++) {
+                assertEquals(valuesInRange.get(100 + index).longValue(), page.getValue(index));
+                assertEquals(page.getValue(index), data[page.getId(index)]);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void findInValueOrder_withANegativeLimit_expectIllegalArgumentException() {
+        new SortedArrayRangeQueryContainer(DATA).findInValueOrder(10, 17, true, true, false, 0, -1);
+    }
+
+    private static void assertPage(final ValuePage page, final short[] expectedIds, final long[] expectedValues) {
+        final short[] ids = new short[page.size()];
+        final long[] values = new long[page.size()];
+        for (int index = 0; index < page.size(); index++) {
+            ids[index] = page.getId(index);
+            values[index] = page.getValue(index);
+        }
+        assertArrayEquals(expectedIds, ids);
+        assertArrayEquals(expectedValues, values);
+    }
+
+}